@@ -0,0 +1,148 @@
+/**
+ *
+ */
+package de.hock.database.select;
+
+/**
+ * Dateiformat f&uuml;r den Export mit {@link RowExporter}.
+ *
+ * <ul>
+ * <li>{@link #CSV}: Kopfzeile mit den Spaltennamen, Werte durch Komma
+ * getrennt, Texte in Anf&uuml;hrungszeichen, <code>NULL</code> als leeres
+ * Feld.</li>
+ * <li>{@link #JSONL}: ein JSON-Objekt pro Zeile, Zahlen und Booleans ohne
+ * Anf&uuml;hrungszeichen, <code>NULL</code> als <code>null</code>.</li>
+ * </ul>
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.com">Mojammal Hock</a>
+ */
+public enum ExportFormat {
+
+  CSV {
+    @Override
+    boolean hasHeader() {
+      return true;
+    }
+
+    @Override
+    void beginRow(StringBuilder row) {
+      // keine Klammer
+    }
+
+    @Override
+    void beginField(StringBuilder row, int index, String label) {
+      if (index > 0) {
+        row.append(',');
+      }
+    }
+
+    @Override
+    void appendNull(StringBuilder row) {
+      // leeres Feld
+    }
+
+    @Override
+    void escape(char character, StringBuilder row) {
+      if (character == '"') {
+        row.append('"');
+      }
+      row.append(character);
+    }
+
+    @Override
+    void endRow(StringBuilder row) {
+      row.append('\n');
+    }
+  },
+
+  JSONL {
+    @Override
+    boolean hasHeader() {
+      return false;
+    }
+
+    @Override
+    void beginRow(StringBuilder row) {
+      row.append('{');
+    }
+
+    @Override
+    void beginField(StringBuilder row, int index, String label) {
+      if (index > 0) {
+        row.append(',');
+      }
+      row.append('"');
+      for (int position = 0; position < label.length(); position++) {
+        escape(label.charAt(position), row);
+      }
+      row.append("\":");
+    }
+
+    @Override
+    void appendNull(StringBuilder row) {
+      row.append("null");
+    }
+
+    @Override
+    void escape(char character, StringBuilder row) {
+      switch (character) {
+      case '"':
+        row.append("\\\"");
+        break;
+      case '\\':
+        row.append("\\\\");
+        break;
+      case '\n':
+        row.append("\\n");
+        break;
+      case '\r':
+        row.append("\\r");
+        break;
+      case '\t':
+        row.append("\\t");
+        break;
+      default:
+        if (character < 0x20) {
+          row.append(String.format("\\u%04x", (int) character));
+        } else {
+          row.append(character);
+        }
+      }
+    }
+
+    @Override
+    void endRow(StringBuilder row) {
+      row.append("}\n");
+    }
+  };
+
+  /**
+   * @return <code>true</code>, wenn die Datei mit einer Kopfzeile beginnt
+   */
+  abstract boolean hasHeader();
+
+  abstract void beginRow(StringBuilder row);
+
+  abstract void beginField(StringBuilder row, int index, String label);
+
+  abstract void appendNull(StringBuilder row);
+
+  /**
+   * H&auml;ngt ein Zeichen eines Textwertes maskiert an.
+   */
+  abstract void escape(char character, StringBuilder row);
+
+  abstract void endRow(StringBuilder row);
+
+  /**
+   * Liest das Format unabh&auml;ngig von Gro&szlig;-/Kleinschreibung.
+   */
+  public static ExportFormat of(String name) {
+    for (ExportFormat format : values()) {
+      if (format.name().equalsIgnoreCase(name.trim())) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException(String.format("Unbekanntes Exportformat %s", name));
+  }
+}
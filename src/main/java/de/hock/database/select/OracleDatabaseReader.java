@@ -3,6 +3,9 @@
  */
 package de.hock.database.select;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
@@ -16,9 +19,12 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import de.hock.jdbc.CachingDatabaseOperation;
 import de.hock.jdbc.DatabaseOperation;
 import de.hock.jdbc.OracleDatabaseOperation;
 import de.hock.jdbc.ProduceOracleDataSource;
+import de.hock.jdbc.ReadItem;
+import de.hock.jdbc.ResultCache;
 import de.hock.jdbc.RowMapper;
 import de.hock.run.ConfigProperty;
 
@@ -32,11 +38,15 @@ import de.hock.run.ConfigProperty;
 public class OracleDatabaseReader implements DatabaseReader {
 
   private static AtomicInteger threadCounter = new AtomicInteger(0);
+  private static ResultCache resultCache;
   private static final Logger logger = Logger.getLogger(OracleDatabaseReader.class.getSimpleName());
   private final String sqlStatement;
   private final Properties properties;
   private final List<Object> placeholder;
   private final Boolean isValidStatement;
+  private final Path exportFile;
+  private final ExportFormat exportFormat;
+  private final boolean exportPerThread;
 
   public OracleDatabaseReader(Properties properties) {
     this.properties = properties;
@@ -48,6 +58,10 @@ public class OracleDatabaseReader implements DatabaseReader {
     placeholder = Objects.nonNull(filter) && !filter.isEmpty() ? Arrays.asList(filter.split(",")).stream().map(arg -> (Object) arg).collect(Collectors.toList())
         : Collections.emptyList();
 
+    String export = properties.getProperty(ConfigProperty.EXPORT_FILE.propKey(), ConfigProperty.EXPORT_FILE.defaultValue()).trim();
+    exportFile = export.isEmpty() ? null : Paths.get(export);
+    exportFormat = ExportFormat.of(properties.getProperty(ConfigProperty.EXPORT_FORMAT.propKey(), ConfigProperty.EXPORT_FORMAT.defaultValue()));
+    exportPerThread = Boolean.parseBoolean(properties.getProperty(ConfigProperty.EXPORT_PER_THREAD.propKey(), ConfigProperty.EXPORT_PER_THREAD.defaultValue()));
   }
 
   /*
@@ -59,17 +73,57 @@ public class OracleDatabaseReader implements DatabaseReader {
    */
   @Override
   public void executeSelectStatement() {
+    if (Objects.nonNull(exportFile)) {
+      exportSelectStatement();
+      return;
+    }
+
     RowMapper<String> mapper = new StringRowMapper();
-    DatabaseOperation db = new OracleDatabaseOperation(ProduceOracleDataSource.getOraclePool(properties));
+    DatabaseOperation db = new OracleDatabaseOperation(ProduceOracleDataSource.getOraclePool(properties), properties);
+    ResultCache cache = getResultCache(properties);
+    if (Objects.nonNull(cache)) {
+      db = new CachingDatabaseOperation(db, cache);
+    }
     try {
       List<String> results = db.selectRows(sqlStatement, placeholder, mapper);
       String result = results.parallelStream().collect(Collectors.joining("\n"));
       System.out.println(String.format("=== Repeat coutn %d, Tablename %s === \n%s", threadCounter.getAndIncrement(), mapper.getTableName(), result));
+      if (Objects.nonNull(cache)) {
+        logger.log(Level.FINE, "{0}", cache);
+      }
     } catch (SQLException sqlEx) {
       logger.log(Level.SEVERE, String.format("Exception: while executing %s, filter %s,", sqlStatement, placeholder), sqlEx);
     }
   }
 
+  /**
+   * Schreibt das Ergebnis zeilenweise mit einem {@link RowExporter} in
+   * {@link ConfigProperty#EXPORT_FILE}, statt es zu sammeln und auszugeben.
+   */
+  private void exportSelectStatement() {
+    Path file = exportPerThread ? RowExporter.perThread(exportFile) : exportFile;
+    DatabaseOperation db = new OracleDatabaseOperation(ProduceOracleDataSource.getOraclePool(properties), properties);
+    try (RowExporter exporter = new RowExporter(file, exportFormat); ReadItem<Long> rows = db.selectRow(sqlStatement, placeholder, exporter)) {
+      while (Objects.nonNull(rows.nextItem())) {
+        // jede Zeile wird beim Mappen geschrieben
+      }
+      logger.log(Level.INFO, "Repeat count {0}: {1} Zeilen nach {2} exportiert",
+          new Object[] { threadCounter.getAndIncrement(), exporter.getRowCount(), exporter.getFile() });
+    } catch (SQLException | IOException ex) {
+      logger.log(Level.SEVERE, String.format("Exception: while exporting %s, filter %s, to %s", sqlStatement, placeholder, file), ex);
+    }
+  }
+
+  /**
+   * Der Result-Cache wird von allen Wiederholungen und Threads geteilt.
+   */
+  private static synchronized ResultCache getResultCache(Properties properties) {
+    if (Objects.isNull(resultCache)) {
+      resultCache = CachingDatabaseOperation.createResultCache(properties);
+    }
+    return resultCache;
+  }
+
   @Override
   public void run() {
     Instant start = Instant.now();
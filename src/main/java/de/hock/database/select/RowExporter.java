@@ -0,0 +1,376 @@
+/**
+ *
+ */
+package de.hock.database.select;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Blob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.hock.jdbc.LobSupport;
+import de.hock.jdbc.RowMapper;
+
+/**
+ * Schreibt die Zeilen eines Selects direkt in eine Datei, statt sie im
+ * Speicher zu sammeln. Jede Zeile wird in einen wiederverwendeten
+ * {@link StringBuilder} formatiert, nach UTF-8 in einen wiederverwendeten
+ * {@link ByteBuffer} kodiert und &uuml;ber einen {@link FileChannel}
+ * geschrieben, sobald der Puffer voll ist. Der Speicherbedarf h&auml;ngt
+ * also nur von der breitesten Zeile ab.
+ *
+ * Mehrere Exporter d&uuml;rfen in dieselbe Datei schreiben: geschrieben wird
+ * angeh&auml;ngt, unter einer Sperre pro Datei und nur an Zeilengrenzen. Die
+ * Datei wird beim ersten Export des Prozesses geleert, die Kopfzeile nur in
+ * eine leere Datei geschrieben. Mit einer Datei pro Thread
+ * ({@link #perThread(Path)}) entf&auml;llt das Warten auf die Sperre.
+ *
+ * Als {@link RowMapper} liefert {@link #mapRow(ResultSet)} die Nummer der
+ * geschriebenen Zeile.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.com">Mojammal Hock</a>
+ */
+public class RowExporter implements RowMapper<Long>, AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(RowExporter.class.getSimpleName());
+
+  /** Gr&ouml;&szlig;e des Schreibpuffers. */
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  /** Sperre pro Datei, f&uuml;r alle Exporter des Prozesses. */
+  private static final Map<Path, Object> fileLocks = new ConcurrentHashMap<>();
+
+  /** In diesem Prozess bereits geleerte Dateien. */
+  private static final Set<Path> truncatedFiles = ConcurrentHashMap.newKeySet();
+
+  private final Path file;
+  private final ExportFormat format;
+  private final Object fileLock;
+  private final FileChannel channel;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final StringBuilder row = new StringBuilder();
+  private final TextSink textSink = new TextSink();
+
+  private Map<String, Integer> columns;
+  private String[] labels;
+  private int[] types;
+  private String tableName;
+  private long rowCount;
+
+  /**
+   * &Ouml;ffnet die Datei zum Anh&auml;ngen.
+   *
+   * @param file
+   *          die Exportdatei
+   * @param format
+   *          das Format
+   * @throws IOException
+   *           falls die Datei nicht ge&ouml;ffnet werden kann.
+   */
+  public RowExporter(Path file, ExportFormat format) throws IOException {
+    this.file = file.toAbsolutePath().normalize();
+    this.format = format;
+    this.fileLock = fileLocks.computeIfAbsent(this.file, key -> new Object());
+
+    synchronized (fileLock) {
+      if (truncatedFiles.add(this.file)) {
+        FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING).close();
+      }
+      channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+  }
+
+  /**
+   * Liefert die Datei des aktuellen Threads: <code>export.csv</code> wird
+   * z.B. zu <code>export-pool-1-thread-2.csv</code>.
+   */
+  public static Path perThread(Path file) {
+    String name = file.getFileName().toString();
+    String thread = Thread.currentThread().getName().replaceAll("[^A-Za-z0-9._-]", "_");
+    int extension = name.lastIndexOf('.');
+    return file.resolveSibling(extension > 0 ? name.substring(0, extension) + "-" + thread + name.substring(extension) : name + "-" + thread);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.RowMapper#mapRow(java.sql.ResultSet)
+   */
+  @Override
+  public Long mapRow(ResultSet resultSet) throws SQLException {
+    if (labels == null) {
+      readMetadata(resultSet);
+    }
+
+    row.setLength(0);
+    format.beginRow(row);
+    for (int index = 0; index < labels.length; index++) {
+      format.beginField(row, index, labels[index]);
+      appendValue(resultSet, index + 1, types[index]);
+    }
+    format.endRow(row);
+
+    try {
+      write(row);
+    } catch (IOException ioEx) {
+      throw new SQLException(String.format("Zeile %d kann nicht nach %s geschrieben werden", rowCount + 1, file), ioEx);
+    }
+    return ++rowCount;
+  }
+
+  private void readMetadata(ResultSet resultSet) throws SQLException {
+    ResultSetMetaData metaData = resultSet.getMetaData();
+    labels = new String[metaData.getColumnCount()];
+    types = new int[labels.length];
+    columns = new LinkedHashMap<>(labels.length);
+    for (int index = 0; index < labels.length; index++) {
+      labels[index] = metaData.getColumnLabel(index + 1);
+      types[index] = metaData.getColumnType(index + 1);
+      columns.put(labels[index], types[index]);
+    }
+    tableName = labels.length > 0 ? metaData.getTableName(1) : null;
+
+    if (format.hasHeader()) {
+      row.setLength(0);
+      for (int index = 0; index < labels.length; index++) {
+        format.beginField(row, index, labels[index]);
+        appendText(labels[index]);
+      }
+      format.endRow(row);
+      try {
+        synchronized (fileLock) {
+          if (channel.size() == 0) {
+            write(row);
+            flush();
+          }
+        }
+      } catch (IOException ioEx) {
+        throw new SQLException(String.format("Kopfzeile kann nicht nach %s geschrieben werden", file), ioEx);
+      }
+    }
+  }
+
+  /**
+   * H&auml;ngt den Spaltenwert an. LOB-Spalten werden blockweise kopiert,
+   * Zahlen und Booleans unmaskiert, alle anderen Werte als Text.
+   */
+  private void appendValue(ResultSet resultSet, int column, int sqlType) throws SQLException {
+    try {
+      switch (sqlType) {
+      case Types.BLOB:
+        Blob blob = resultSet.getBlob(column);
+        if (blob == null) {
+          format.appendNull(row);
+        } else {
+          try (InputStream input = blob.getBinaryStream()) {
+            beginText();
+            LobSupport.appendByteArrayString(input, textSink);
+            endText();
+          } finally {
+            blob.free();
+          }
+        }
+        break;
+      case Types.CLOB:
+      case Types.NCLOB:
+      case Types.LONGVARCHAR:
+      case Types.LONGNVARCHAR:
+        try (Reader reader = resultSet.getCharacterStream(column)) {
+          if (reader == null) {
+            format.appendNull(row);
+          } else {
+            beginText();
+            LobSupport.copy(reader, textSink);
+            endText();
+          }
+        }
+        break;
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+      case Types.INTEGER:
+      case Types.SMALLINT:
+      case Types.TINYINT:
+      case Types.BIGINT:
+        BigDecimal number = resultSet.getBigDecimal(column);
+        if (number == null) {
+          format.appendNull(row);
+        } else {
+          row.append(number.toPlainString());
+        }
+        break;
+      case Types.FLOAT:
+      case Types.DOUBLE:
+      case Types.REAL:
+        double value = resultSet.getDouble(column);
+        if (resultSet.wasNull()) {
+          format.appendNull(row);
+        } else if (Double.isFinite(value)) {
+          row.append(value);
+        } else {
+          appendText(Double.toString(value));
+        }
+        break;
+      case Types.BOOLEAN:
+      case Types.BIT:
+        boolean flag = resultSet.getBoolean(column);
+        if (resultSet.wasNull()) {
+          format.appendNull(row);
+        } else {
+          row.append(flag);
+        }
+        break;
+      default:
+        String text = resultSet.getString(column);
+        if (text == null) {
+          format.appendNull(row);
+        } else {
+          appendText(text);
+        }
+      }
+    } catch (IOException ioEx) {
+      throw new SQLException(String.format("Spalte %d kann nicht gelesen werden", column), ioEx);
+    }
+  }
+
+  private void appendText(CharSequence text) {
+    beginText();
+    for (int index = 0; index < text.length(); index++) {
+      format.escape(text.charAt(index), row);
+    }
+    endText();
+  }
+
+  private void beginText() {
+    row.append('"');
+  }
+
+  private void endText() {
+    row.append('"');
+  }
+
+  /**
+   * Kodiert die Zeile in den Puffer. Passt sie nicht mehr hinein, werden
+   * zuerst die vorherigen, vollst&auml;ndigen Zeilen und dann die Zeile
+   * selbst unter der Sperre geschrieben, bei Bedarf in mehreren Teilen.
+   * Zeilen anderer Exporter liegen so nie mitten in einer Zeile.
+   */
+  private void write(CharSequence text) throws IOException {
+    int rowStart = buffer.position();
+    CharBuffer chars = CharBuffer.wrap(text);
+    encoder.reset();
+    if (!encoder.encode(chars, buffer, true).isOverflow() && !encoder.flush(buffer).isOverflow()) {
+      return;
+    }
+
+    // Zeile passt nicht mehr: vorherige Zeilen schreiben und neu kodieren
+    buffer.position(rowStart);
+    flush();
+    chars.rewind();
+    encoder.reset();
+    synchronized (fileLock) {
+      while (encoder.encode(chars, buffer, true).isOverflow()) {
+        drain();
+      }
+      while (encoder.flush(buffer).isOverflow()) {
+        drain();
+      }
+      drain();
+    }
+  }
+
+  /**
+   * Schreibt den Puffer unter der Sperre der Datei.
+   */
+  private void flush() throws IOException {
+    if (buffer.position() > 0) {
+      synchronized (fileLock) {
+        drain();
+      }
+    }
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Schreibt die restlichen Zeilen und schlie&szlig;t die Datei.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+    logger.log(Level.FINE, "{0} Zeilen nach {1} exportiert", new Object[] { rowCount, file });
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  @Override
+  public Map<String, Integer> getColumnNames() {
+    return columns;
+  }
+
+  @Override
+  public String getTableName() {
+    return tableName;
+  }
+
+  /**
+   * Maskiert die Zeichen eines LOB-Wertes beim Kopieren.
+   */
+  private final class TextSink implements Appendable {
+
+    @Override
+    public Appendable append(CharSequence text) {
+      return append(text, 0, text.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence text, int start, int end) {
+      for (int index = start; index < end; index++) {
+        format.escape(text.charAt(index), row);
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(char character) {
+      format.escape(character, row);
+      return this;
+    }
+  }
+}
@@ -4,17 +4,27 @@
 package de.hock.database.select;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.StringJoiner;
 
 import de.hock.jdbc.SQLTypeMapper;
 import de.hock.jdbc.RowMapper;
 
 /**
- * 
+ * Formatiert eine Zeile als <code>SPALTE=wert, SPALTE=wert</code> in der
+ * Reihenfolge der Spalten im Select.
+ *
+ * Spalten, Pr&auml;fixe und ein {@link ColumnWriter} pro Spalte werden bei der
+ * ersten Zeile bestimmt. Danach wird jede Zeile &uuml;ber den Spaltenindex in
+ * einen wiederverwendeten {@link StringBuilder} geschrieben, Zahlen und
+ * Booleans ohne Boxing, LOB-Spalten blockweise. Wer keinen {@link String}
+ * braucht, kann mit {@link #appendRow(ResultSet, StringBuilder)} direkt in
+ * einen eigenen Puffer schreiben.
+ *
  * @author <a href="mailto:Mojammal.Hoque.B@gmail.com">Mojammal Hock</a>
  *
  */
@@ -24,6 +34,18 @@ public class StringRowMapper implements RowMapper<String> {
   private String tableName;
   private SQLTypeMapper typeMapper = new SQLTypeMapper();
 
+  private String[] prefixes;
+  private ColumnWriter[] writers;
+  private final StringBuilder row = new StringBuilder();
+
+  /**
+   * Schreibt den Wert einer Spalte in den Puffer.
+   */
+  @FunctionalInterface
+  private interface ColumnWriter {
+    void append(ResultSet resultSet, int column, StringBuilder sink) throws SQLException;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -32,17 +54,70 @@ public class StringRowMapper implements RowMapper<String> {
    */
   @Override
   public String mapRow(ResultSet resultSet) throws SQLException {
-    if (Objects.isNull(columns) || Objects.isNull(tableName)) {
-      columns = getColumnNames(resultSet);
-      tableName = getTableName(resultSet);
+    row.setLength(0);
+    appendRow(resultSet, row);
+    return row.toString();
+  }
+
+  /**
+   * Schreibt die aktuelle Zeile an <code>sink</code>.
+   */
+  public void appendRow(ResultSet resultSet, StringBuilder sink) throws SQLException {
+    if (Objects.isNull(writers)) {
+      resolveColumns(resultSet);
+    }
+
+    for (int index = 0; index < writers.length; index++) {
+      sink.append(prefixes[index]);
+      writers[index].append(resultSet, index + 1, sink);
     }
+  }
+
+  private void resolveColumns(ResultSet resultSet) throws SQLException {
+    ResultSetMetaData metadata = resultSet.getMetaData();
+    int columnCount = metadata.getColumnCount();
+    Map<String, Integer> columnInfo = new LinkedHashMap<>(columnCount);
+    prefixes = new String[columnCount];
+    writers = new ColumnWriter[columnCount];
 
-    StringJoiner joiner = new StringJoiner(", ");
-    for (Entry<String, Integer> columninfo : getColumnNames().entrySet()) {
-      joiner.add(String.join("=", columninfo.getKey(), String.valueOf(typeMapper.getObject(resultSet, columninfo.getKey(), columninfo.getValue()))));
+    for (int index = 0; index < columnCount; index++) {
+      String label = metadata.getColumnLabel(index + 1);
+      int sqlType = metadata.getColumnType(index + 1);
+      columnInfo.put(label, sqlType);
+      prefixes[index] = (index == 0 ? "" : ", ") + label + '=';
+      writers[index] = createWriter(sqlType);
     }
 
-    return joiner.toString();
+    columns = columnInfo;
+    tableName = getTableName(resultSet);
+  }
+
+  /**
+   * Liefert den Writer f&uuml;r den Spaltentyp. Die Werte entsprechen
+   * {@link SQLTypeMapper#appendObject(ResultSet, int, Integer, Appendable)}.
+   */
+  private ColumnWriter createWriter(int sqlType) {
+    switch (sqlType) {
+    case Types.BIT:
+    case Types.SMALLINT:
+    case Types.INTEGER:
+      return (resultSet, column, sink) -> sink.append(resultSet.getInt(column));
+    case Types.BIGINT:
+    case Types.DECIMAL:
+    case Types.NUMERIC:
+      return (resultSet, column, sink) -> sink.append(resultSet.getLong(column));
+    case Types.DOUBLE:
+    case Types.FLOAT:
+      return (resultSet, column, sink) -> sink.append(resultSet.getDouble(column));
+    case Types.BOOLEAN:
+      return (resultSet, column, sink) -> sink.append(resultSet.getBoolean(column));
+    case Types.VARCHAR:
+    case Types.NVARCHAR:
+      return (resultSet, column, sink) -> sink.append(resultSet.getString(column));
+    default:
+      // LOB-Spalten werden blockweise direkt in den Builder kopiert
+      return (resultSet, column, sink) -> typeMapper.appendObject(resultSet, column, sqlType, sink);
+    }
   }
 
   @Override
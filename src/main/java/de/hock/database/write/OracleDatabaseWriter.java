@@ -27,8 +27,6 @@ import de.hock.run.ConfigProperty;
  */
 public class OracleDatabaseWriter implements DatabaseWriter {
 
-  private static final int BATCH_SIZE = 5000;
-
   private static AtomicInteger threadCounter = new AtomicInteger(0);
 
   private static final Logger logger = Logger.getLogger(OracleDatabaseWriter.class.getSimpleName());
@@ -36,8 +34,10 @@ public class OracleDatabaseWriter implements DatabaseWriter {
   private final Properties properties;
   private final Integer threadCount;
   private final Integer repeatCount;
+  private final Integer packageSize;
   private final List<Object> placeholder;
   private final Boolean isValidStatement;
+  private final boolean resumable;
 
   public OracleDatabaseWriter(Properties properties) {
     this.properties = properties;
@@ -54,6 +54,11 @@ public class OracleDatabaseWriter implements DatabaseWriter {
     count = (String) properties.get(ConfigProperty.REPEAT_COUNT.propKey());
     repeatCount = Objects.isNull(count) || "".equals(count) ? 0 : Integer.parseInt(count);
 
+    count = (String) properties.get(ConfigProperty.WRITE_PACKAGE_SIZE.propKey());
+    packageSize = Integer.parseInt(Objects.isNull(count) || "".equals(count) ? ConfigProperty.WRITE_PACKAGE_SIZE.defaultValue() : count);
+
+    resumable = !properties.getProperty(ConfigProperty.CHECKPOINT_PATH.propKey(), ConfigProperty.CHECKPOINT_PATH.defaultValue()).trim().isEmpty();
+
   }
 
   /*
@@ -66,7 +71,7 @@ public class OracleDatabaseWriter implements DatabaseWriter {
   public void executeStatement() {
 
     if (isValidStatement) {
-      DatabaseOperation db = new OracleDatabaseOperation(ProduceOracleDataSource.getOraclePool(properties));
+      DatabaseOperation db = new OracleDatabaseOperation(ProduceOracleDataSource.getOraclePool(properties), properties);
 
       logger.log(Level.FINER, "Executing statement {0}", sqlStatement);
       try {
@@ -74,7 +79,12 @@ public class OracleDatabaseWriter implements DatabaseWriter {
 
           Integer currentExecution = threadCounter.incrementAndGet();
           List<List<Object>> values = createPlaceholderValues(currentExecution);
-          db.batchInsert(sqlStatement, values);
+          if (resumable) {
+            // Pro Paket ein Ladevorgang, ein abgebrochenes Paket setzt nach dem letzten Commit fort
+            db.resumableBatchInsert(String.format("write-%08x-%d", sqlStatement.hashCode(), currentExecution), sqlStatement, values.iterator());
+          } else {
+            db.batchInsert(sqlStatement, values);
+          }
           logger.log(Level.INFO, "ExecutionId: {0}, {1} data has been inserted", new Object[] { currentExecution, values.size() });
 
         } else {
@@ -92,6 +102,8 @@ public class OracleDatabaseWriter implements DatabaseWriter {
     executeStatement();
     Duration duration = Duration.between(start, Instant.now());
     logger.log(Level.INFO, "All write statement executed in {0}", duration);
+    logger.log(Level.INFO, "Batch sizes {0}", OracleDatabaseOperation.getBatchSizeControllers());
+    logger.log(Level.INFO, "{0}", OracleDatabaseOperation.getSqlCache());
   }
 
   @Override
@@ -107,11 +119,11 @@ public class OracleDatabaseWriter implements DatabaseWriter {
     if (!isSelectStatement()) {
       numberoftaskCount = repeatCount;
     } else {
-      if (repeatCount / BATCH_SIZE == 0) {
+      if (repeatCount / packageSize == 0) {
         numberoftaskCount = 1;
       } else {
-        int mod = repeatCount / BATCH_SIZE;
-        numberoftaskCount = repeatCount % BATCH_SIZE == 0 ? mod : mod + 1;
+        int mod = repeatCount / packageSize;
+        numberoftaskCount = repeatCount % packageSize == 0 ? mod : mod + 1;
       }
     }
 
@@ -128,14 +140,14 @@ public class OracleDatabaseWriter implements DatabaseWriter {
   }
 
   private synchronized List<List<Object>> createPlaceholderValues(Integer count) {
-    int packateSize = BATCH_SIZE;
+    int packateSize = packageSize;
 
-    if (repeatCount < BATCH_SIZE) {
+    if (repeatCount < packageSize) {
       packateSize = repeatCount;
-    } else if (repeatCount > (count * BATCH_SIZE)) {
-      packateSize = BATCH_SIZE;
-    } else if (repeatCount < (count * BATCH_SIZE)) {
-      packateSize = (repeatCount - BATCH_SIZE * (count - 1));
+    } else if (repeatCount > (count * packageSize)) {
+      packateSize = packageSize;
+    } else if (repeatCount < (count * packageSize)) {
+      packateSize = (repeatCount - packageSize * (count - 1));
     }
 
     return Collections.nCopies(packateSize, placeholder);
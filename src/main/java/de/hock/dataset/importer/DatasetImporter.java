@@ -43,7 +43,8 @@ public class DatasetImporter implements FileImporter {
 
     List<File> files = fileHandler.readFilenamesFromPathWithEndPattern(properties.getProperty(ConfigProperty.IMPORT_DIR.propKey()),
         properties.getProperty(ConfigProperty.FILE_PATTERN.propKey()));
-    DatabaseOperation db = new OracleDatabaseOperation(ProduceOracleDataSource.getOraclePool(properties));
+    DatabaseOperation db = new OracleDatabaseOperation(ProduceOracleDataSource.getOraclePool(properties), properties);
+    boolean resumable = !properties.getProperty(ConfigProperty.CHECKPOINT_PATH.propKey(), ConfigProperty.CHECKPOINT_PATH.defaultValue()).trim().isEmpty();
 
     for (File file : files) {
       try {
@@ -53,7 +54,13 @@ public class DatasetImporter implements FileImporter {
         dataseReader.readAllNodes();
 
         for (String tableName : dataseReader.getTableNames()) {
-          db.batchInsert(tableName, dataseReader.getColumnsOfTable(tableName), dataseReader.getRowValues(tableName));
+          if (resumable) {
+            // Ein abgebrochener Import setzt nach dem letzten Commit fort
+            db.resumableBatchInsert(file.getName() + "-" + tableName, tableName, dataseReader.getColumnsOfTable(tableName),
+                dataseReader.getRowValues(tableName).iterator());
+          } else {
+            db.batchInsert(tableName, dataseReader.getColumnsOfTable(tableName), dataseReader.getRowValues(tableName));
+          }
         }
 
       } catch (ParserConfigurationException | SAXException | SQLException ex) {
@@ -62,5 +69,6 @@ public class DatasetImporter implements FileImporter {
 
       }
     }
+    logger.log(Level.INFO, "{0}", OracleDatabaseOperation.getSqlCache());
   }
 }
@@ -0,0 +1,214 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Erzeugt Konstruktor-, Getter- und Setter-Funktionen f&uuml;r Entity-Klassen.
+ * Die Funktionen werden einmal pro Klasse gebaut und ersetzen
+ * {@link Method#invoke(Object, Object...)} und {@link Field#get(Object)} in der
+ * Verarbeitung pro Zeile.
+ *
+ * F&uuml;r &ouml;ffentliche Klassen und Methoden wird eine Lambda-Klasse mit
+ * {@link LambdaMetafactory} generiert, sonst wird ein {@link MethodHandle}
+ * verwendet.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class AccessorFactory {
+
+  private static final Logger logger = Logger.getLogger(AccessorFactory.class.getSimpleName());
+
+  private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+  private static final MethodType SUPPLIER_TYPE = MethodType.methodType(Object.class);
+  private static final MethodType FUNCTION_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType FUNCTION_ARRAY_TYPE = MethodType.methodType(Object.class, Object[].class);
+  private static final MethodType BICONSUMER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  /**
+   * Liefert eine Funktion, die mit dem Default-Konstruktor ein neues Objekt
+   * erzeugt.
+   *
+   * @param clazz
+   *          ein Class-Typ
+   * @return Konstruktor-Funktion oder <code>null</code>, falls die Klasse
+   *         keinen Default-Konstruktor hat.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Supplier<T> createConstructor(Class<T> clazz) {
+    Constructor<T> constructor;
+    try {
+      constructor = clazz.getDeclaredConstructor();
+    } catch (NoSuchMethodException ex) {
+      return null;
+    }
+
+    try {
+      if (isLambdaAccessible(clazz, constructor.getModifiers())) {
+        MethodHandle handle = lookup.unreflectConstructor(constructor);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class), SUPPLIER_TYPE, handle,
+            MethodType.methodType(clazz));
+        return (Supplier<T>) site.getTarget().invokeExact();
+      }
+    } catch (Throwable ex) {
+      logger.log(Level.FINE, String.format("Keine Lambda fuer Konstruktor von %s, verwende MethodHandle.", clazz.getName()), ex);
+    }
+
+    constructor.setAccessible(true);
+    MethodHandle handle = unreflect(() -> lookup.unreflectConstructor(constructor)).asType(SUPPLIER_TYPE);
+    return () -> {
+      try {
+        return (T) handle.invokeExact();
+      } catch (Throwable ex) {
+        throw propagate(ex);
+      }
+    };
+  }
+
+  /**
+   * Liefert eine Funktion, die mit dem angegebenen Konstruktor ein neues Objekt
+   * erzeugt. Die Argumente werden als Array &uuml;bergeben, das Array kann vom
+   * Aufrufer wiederverwendet werden.
+   *
+   * @param constructor
+   *          ein Konstruktor, z.B. der kanonische Konstruktor eines Records
+   * @return Konstruktor-Funktion (Argumente) -&gt; neues Objekt
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Function<Object[], T> createConstructor(Constructor<T> constructor) {
+    constructor.setAccessible(true);
+    MethodHandle handle = unreflect(() -> lookup.unreflectConstructor(constructor))
+        .asSpreader(Object[].class, constructor.getParameterCount())
+        .asType(FUNCTION_ARRAY_TYPE);
+    return arguments -> {
+      try {
+        return (T) handle.invokeExact(arguments);
+      } catch (Throwable ex) {
+        throw propagate(ex);
+      }
+    };
+  }
+
+  /**
+   * Liefert eine Funktion, die die angegebene Setter-Methode aufruft.
+   *
+   * @param method
+   *          eine Setter-Methode mit einem Parameter
+   * @return Setter-Funktion (Objekt, Wert)
+   */
+  @SuppressWarnings("unchecked")
+  public BiConsumer<Object, Object> createSetter(Method method) {
+    Class<?> declaringClass = method.getDeclaringClass();
+    Class<?> parameterType = method.getParameterTypes()[0];
+
+    try {
+      if (isLambdaAccessible(declaringClass, method.getModifiers()) && isLambdaAccessible(parameterType, Modifier.PUBLIC)) {
+        MethodHandle handle = lookup.unreflect(method);
+        MethodType instantiatedType = MethodType.methodType(void.class, declaringClass, MethodType.methodType(parameterType).wrap().returnType());
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class), BICONSUMER_TYPE, handle,
+            instantiatedType);
+        return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+      }
+    } catch (Throwable ex) {
+      logger.log(Level.FINE, String.format("Keine Lambda fuer %s, verwende MethodHandle.", method), ex);
+    }
+
+    method.setAccessible(true);
+    MethodHandle handle = unreflect(() -> lookup.unreflect(method)).asType(BICONSUMER_TYPE);
+    return (object, value) -> {
+      try {
+        handle.invokeExact(object, value);
+      } catch (Throwable ex) {
+        throw propagate(ex);
+      }
+    };
+  }
+
+  /**
+   * Liefert eine Funktion, die den Wert des angegebenen Feldes liest.
+   *
+   * @param field
+   *          ein Feld
+   * @return Getter-Funktion (Objekt) -&gt; Wert
+   */
+  public Function<Object, Object> createGetter(Field field) {
+    field.setAccessible(true);
+    MethodHandle handle = unreflect(() -> lookup.unreflectGetter(field)).asType(FUNCTION_TYPE);
+    return object -> {
+      try {
+        return handle.invokeExact(object);
+      } catch (Throwable ex) {
+        throw propagate(ex);
+      }
+    };
+  }
+
+  /**
+   * Eine generierte Lambda-Klasse wird im ClassLoader dieser Klasse definiert.
+   * Sie darf deshalb nur &ouml;ffentliche Member von sichtbaren,
+   * &ouml;ffentlichen Klassen aufrufen.
+   */
+  private boolean isLambdaAccessible(Class<?> clazz, int memberModifiers) {
+    if (!Modifier.isPublic(memberModifiers)) {
+      return false;
+    }
+    if (clazz.isPrimitive()) {
+      return true;
+    }
+    if (clazz.isArray()) {
+      return isLambdaAccessible(clazz.getComponentType(), memberModifiers);
+    }
+
+    for (Class<?> type = clazz; Objects.nonNull(type); type = type.getEnclosingClass()) {
+      if (!Modifier.isPublic(type.getModifiers())) {
+        return false;
+      }
+    }
+
+    try {
+      return Class.forName(clazz.getName(), false, AccessorFactory.class.getClassLoader()) == clazz;
+    } catch (ClassNotFoundException ex) {
+      return false;
+    }
+  }
+
+  private MethodHandle unreflect(HandleProducer producer) {
+    try {
+      return producer.produce();
+    } catch (IllegalAccessException ex) {
+      throw new IllegalArgumentException(ex);
+    }
+  }
+
+  private RuntimeException propagate(Throwable ex) {
+    if (ex instanceof RuntimeException) {
+      return (RuntimeException) ex;
+    }
+    if (ex instanceof Error) {
+      throw (Error) ex;
+    }
+    return new RuntimeException(ex);
+  }
+
+  @FunctionalInterface
+  private interface HandleProducer {
+    MethodHandle produce() throws IllegalAccessException;
+  }
+}
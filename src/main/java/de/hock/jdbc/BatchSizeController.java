@@ -0,0 +1,199 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bestimmt die Batchgr&ouml;&szlig;e f&uuml;r {@link java.sql.PreparedStatement#executeBatch()}.
+ *
+ * Im festen Modus bleibt die Batchgr&ouml;&szlig;e konstant. Im adaptiven
+ * Modus wird jede Runde (Anzahl Zeilen und Dauer) gemessen; nach
+ * {@link #WINDOW} vollen Runden wird die Batchgr&ouml;&szlig;e um den Faktor
+ * {@link #STEP} vergr&ouml;&szlig;ert oder verkleinert, in Richtung der
+ * h&ouml;heren Zeilen pro Sekunde (Hill-Climbing) und innerhalb von
+ * <code>minBatchSize</code> und <code>maxBatchSize</code>.
+ *
+ * Die Klasse ist thread-sicher und kann von mehreren Threads mit demselben
+ * Query geteilt werden.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class BatchSizeController {
+
+  private static final Logger logger = Logger.getLogger(BatchSizeController.class.getSimpleName());
+
+  /** Anzahl voller Runden pro Messfenster. */
+  static final int WINDOW = 3;
+
+  /** Faktor, um den die Batchgr&ouml;&szlig;e pro Schritt ge&auml;ndert wird. */
+  static final double STEP = 1.5;
+
+  private final boolean adaptive;
+  private final int minBatchSize;
+  private final int maxBatchSize;
+
+  private int batchSize;
+  private int direction = 1;
+  private double previousRowsPerSecond;
+
+  private int windowRounds;
+  private long windowRows;
+  private long windowNanos;
+
+  private int bestBatchSize;
+  private double bestRowsPerSecond;
+  private double lastRowsPerSecond;
+  private long rounds;
+  private long totalRows;
+  private long totalNanos;
+
+  /**
+   * Erzeugt einen Controller mit fester Batchgr&ouml;&szlig;e.
+   *
+   * @param batchSize
+   *          Batchgr&ouml;&szlig;e, gr&ouml;&szlig;er als 0
+   */
+  public BatchSizeController(int batchSize) {
+    this(batchSize, batchSize, batchSize, false);
+  }
+
+  /**
+   * @param batchSize
+   *          Start-Batchgr&ouml;&szlig;e
+   * @param minBatchSize
+   *          kleinste Batchgr&ouml;&szlig;e im adaptiven Modus
+   * @param maxBatchSize
+   *          gr&ouml;&szlig;te Batchgr&ouml;&szlig;e im adaptiven Modus
+   * @param adaptive
+   *          <code>true</code> f&uuml;r den adaptiven Modus
+   */
+  public BatchSizeController(int batchSize, int minBatchSize, int maxBatchSize, boolean adaptive) {
+    if (minBatchSize < 1 || minBatchSize > maxBatchSize) {
+      throw new IllegalArgumentException(String.format("Ungültige Batchgrenzen min=%d, max=%d", minBatchSize, maxBatchSize));
+    }
+    this.adaptive = adaptive;
+    this.minBatchSize = minBatchSize;
+    this.maxBatchSize = maxBatchSize;
+    this.batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, batchSize));
+    this.bestBatchSize = this.batchSize;
+  }
+
+  /**
+   * @return aktuelle Batchgr&ouml;&szlig;e
+   */
+  public synchronized int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Meldet eine ausgef&uuml;hrte Runde. Nur volle Runden (mindestens so viele
+   * Zeilen wie die aktuelle Batchgr&ouml;&szlig;e) flie&szlig;en in die
+   * Anpassung ein.
+   *
+   * @param rows
+   *          Anzahl Zeilen im Batch
+   * @param elapsedNanos
+   *          Dauer von <code>executeBatch</code> in Nanosekunden
+   */
+  public synchronized void record(int rows, long elapsedNanos) {
+    long nanos = Math.max(1L, elapsedNanos);
+    rounds++;
+    totalRows += rows;
+    totalNanos += nanos;
+    lastRowsPerSecond = rowsPerSecond(rows, nanos);
+
+    if (!adaptive || rows < batchSize) {
+      return;
+    }
+
+    windowRounds++;
+    windowRows += rows;
+    windowNanos += nanos;
+    if (windowRounds < WINDOW) {
+      return;
+    }
+
+    double throughput = rowsPerSecond(windowRows, windowNanos);
+    windowRounds = 0;
+    windowRows = 0;
+    windowNanos = 0;
+
+    if (throughput > bestRowsPerSecond) {
+      bestRowsPerSecond = throughput;
+      bestBatchSize = batchSize;
+    }
+    if (throughput < previousRowsPerSecond) {
+      direction = -direction;
+    }
+    previousRowsPerSecond = throughput;
+
+    int next = nextBatchSize();
+    if (next == batchSize) {
+      direction = -direction;
+      next = nextBatchSize();
+    }
+
+    logger.log(Level.FINE, "Batchgröße {0} -> {1} ({2} Zeilen/s)", new Object[] { batchSize, next, Math.round(throughput) });
+    batchSize = next;
+  }
+
+  private int nextBatchSize() {
+    double size = direction > 0 ? Math.ceil(batchSize * STEP) : Math.floor(batchSize / STEP);
+    return (int) Math.max(minBatchSize, Math.min(maxBatchSize, size));
+  }
+
+  private static double rowsPerSecond(long rows, long nanos) {
+    return rows * 1_000_000_000d / nanos;
+  }
+
+  public boolean isAdaptive() {
+    return adaptive;
+  }
+
+  public int getMinBatchSize() {
+    return minBatchSize;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * @return Batchgr&ouml;&szlig;e mit den bisher meisten Zeilen pro Sekunde
+   */
+  public synchronized int getBestBatchSize() {
+    return bestBatchSize;
+  }
+
+  public synchronized double getBestRowsPerSecond() {
+    return bestRowsPerSecond;
+  }
+
+  public synchronized double getLastRowsPerSecond() {
+    return lastRowsPerSecond;
+  }
+
+  public synchronized long getRounds() {
+    return rounds;
+  }
+
+  public synchronized long getTotalRows() {
+    return totalRows;
+  }
+
+  /**
+   * @return durchschnittliche Zeilen pro Sekunde &uuml;ber alle Runden
+   */
+  public synchronized double getAverageRowsPerSecond() {
+    return totalNanos == 0 ? 0 : rowsPerSecond(totalRows, totalNanos);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("BatchSizeController [adaptive=%s, batchSize=%d, bestBatchSize=%d, rounds=%d, rows=%d, avgRowsPerSecond=%.0f]", adaptive,
+        batchSize, bestBatchSize, rounds, totalRows, getAverageRowsPerSecond());
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ergebnis eines parallelen Bulk-Inserts: die Summe der Update-Counts aller
+ * erfolgreichen Partitionen und pro fehlgeschlagener Partition ein
+ * {@link PartitionFailure}. Jede Partition wird f&uuml;r sich committed, eine
+ * fehlgeschlagene Partition wird zur&uuml;ckgerollt, ohne die anderen zu
+ * beeinflussen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class BulkInsertResult {
+
+  private final long updateCount;
+  private final int partitionCount;
+  private final List<PartitionFailure> failures;
+
+  public BulkInsertResult(long updateCount, int partitionCount, List<PartitionFailure> failures) {
+    this.updateCount = updateCount;
+    this.partitionCount = partitionCount;
+    this.failures = Collections.unmodifiableList(failures);
+  }
+
+  /**
+   * @return Summe der Update-Counts aller erfolgreichen Partitionen
+   */
+  public long getUpdateCount() {
+    return updateCount;
+  }
+
+  public int getPartitionCount() {
+    return partitionCount;
+  }
+
+  public List<PartitionFailure> getFailures() {
+    return failures;
+  }
+
+  /**
+   * @return <code>true</code>, wenn alle Partitionen committed wurden.
+   */
+  public boolean isSuccessful() {
+    return failures.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("BulkInsertResult [updateCount=%d, partitions=%d, failures=%s]", updateCount, partitionCount, failures);
+  }
+
+  /**
+   * Eine fehlgeschlagene, zur&uuml;ckgerollte Partition.
+   */
+  public static class PartitionFailure {
+
+    private final int partition;
+    private final int firstRow;
+    private final int rowCount;
+    private final Exception cause;
+
+    public PartitionFailure(int partition, int firstRow, int rowCount, Exception cause) {
+      this.partition = partition;
+      this.firstRow = firstRow;
+      this.rowCount = rowCount;
+      this.cause = cause;
+    }
+
+    /**
+     * @return Nummer der Partition ab 0
+     */
+    public int getPartition() {
+      return partition;
+    }
+
+    /**
+     * @return Index der ersten Zeile der Partition in der Eingabeliste
+     */
+    public int getFirstRow() {
+      return firstRow;
+    }
+
+    public int getRowCount() {
+      return rowCount;
+    }
+
+    public Exception getCause() {
+      return cause;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("PartitionFailure [partition=%d, rows=%d..%d, cause=%s]", partition, firstRow, firstRow + rowCount - 1, cause);
+    }
+  }
+}
@@ -0,0 +1,578 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import de.hock.run.ConfigProperty;
+
+/**
+ * {@link DatabaseOperation}, die <code>selectRows</code> und
+ * <code>selectOneRow</code> aus einem {@link ResultCache} beantwortet und
+ * alle anderen Aufrufe an die dekorierte Operation weitergibt. Wiederholte
+ * Selects mit gleichem Query und gleichen Platzhalterwerten brauchen so
+ * keinen Roundtrip zur Datenbank.
+ *
+ * Schreiboperationen &uuml;ber diese Instanz invalidieren die Ergebnisse ihrer
+ * Tabelle, nach {@link #commit()} und {@link #rollback()} noch einmal, da
+ * andere Threads vor dem Ende der Transaktion einen anderen Stand gelesen haben
+ * k&ouml;nnen. L&auml;uft im aktuellen Thread eine Transaktion, wird der Cache
+ * nicht benutzt: die Selects sollen die eigenen, noch nicht committeten
+ * &Auml;nderungen sehen und diese nicht in den Cache bringen. DDL
+ * invalidiert den ganzen Cache. &Auml;nderungen an der Datenbank an dieser Instanz vorbei werden erst
+ * nach Ablauf der TTL sichtbar; der Cache eignet sich daher f&uuml;r selten
+ * ge&auml;nderte Referenzdaten.
+ *
+ * Ergebnisse mit {@link RowMapper} werden &uuml;ber die Klasse des Mappers
+ * gecacht, der Mapper sollte also zustandslos sein. Die gecachten Listen sind
+ * unver&auml;nderbar, die Zeilen selbst werden zwischen den Aufrufern geteilt.
+ * <code>selectRow</code>, <code>selectStream</code>,
+ * <code>selectPublisher</code>, <code>selectParallel</code> und
+ * <code>selectPage</code> werden nicht gecacht.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class CachingDatabaseOperation implements DatabaseOperation {
+
+  private static final Logger logger = Logger.getLogger(CachingDatabaseOperation.class.getSimpleName());
+
+  private final EntityMetadataRegistry metadataRegistry = EntityMetadataRegistry.getInstance();
+
+  private final DatabaseOperation delegate;
+  private final ResultCache cache;
+
+  /** In der laufenden Transaktion beschriebene Tabellen, <code>null</code> f&uuml;r alle. */
+  private Set<String> writtenTables = new LinkedHashSet<>();
+
+  /**
+   * @param delegate
+   *          die eigentliche Datenbankoperation
+   * @param cache
+   *          der Cache, kann von mehreren Instanzen geteilt werden
+   */
+  public CachingDatabaseOperation(DatabaseOperation delegate, ResultCache cache) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate");
+    this.cache = Objects.requireNonNull(cache, "cache");
+  }
+
+  /**
+   * Erzeugt einen Cache mit Einstellungen aus <code>properties</code>
+   * ({@link ConfigProperty#RESULT_CACHE_SIZE},
+   * {@link ConfigProperty#RESULT_CACHE_TTL_MILLIS}).
+   *
+   * @return der Cache oder <code>null</code>, wenn
+   *         {@link ConfigProperty#RESULT_CACHE_SIZE} 0 ist
+   */
+  public static ResultCache createResultCache(Properties properties) {
+    int maxSize = ConfigProperty.RESULT_CACHE_SIZE.intValue(properties);
+    return maxSize > 0 ? new ResultCache(maxSize, ConfigProperty.RESULT_CACHE_TTL_MILLIS.intValue(properties)) : null;
+  }
+
+  public ResultCache getResultCache() {
+    return cache;
+  }
+
+  @Override
+  public <T> T selectOneRow(String query, List<Object> columnValues, Class<T> clazz) throws SQLException {
+    if (delegate.isTransactionActive()) {
+      return delegate.selectOneRow(query, columnValues, clazz);
+    }
+
+    List<Object> key = cacheKey(query, columnValues, clazz, "ONE");
+    List<T> rows = cache.get(key);
+    if (Objects.isNull(rows)) {
+      long generation = cache.getGeneration();
+      rows = Collections.singletonList(delegate.selectOneRow(query, columnValues, clazz));
+      cache.put(key, rows, generation);
+    }
+    return rows.get(0);
+  }
+
+  @Override
+  public <T> List<T> selectRows(String query, List<Object> columnValues, Class<T> clazz) throws SQLException {
+    return selectCached(cacheKey(query, columnValues, clazz), () -> delegate.selectRows(query, columnValues, clazz));
+  }
+
+  @Override
+  public <T> List<T> selectRows(String query, List<Object> columnValues, Class<T> clazz, int fetchSize) throws SQLException {
+    return selectCached(cacheKey(query, columnValues, clazz), () -> delegate.selectRows(query, columnValues, clazz, fetchSize));
+  }
+
+  @Override
+  public <T> List<T> selectRows(String query, List<Object> columnValues, RowMapper<T> mapper) throws SQLException {
+    return selectCached(cacheKey(query, columnValues, mapper.getClass()), () -> delegate.selectRows(query, columnValues, mapper));
+  }
+
+  @Override
+  public <T> List<T> selectRows(String query, List<Object> columnValues, RowMapper<T> mapper, int fetchSize) throws SQLException {
+    return selectCached(cacheKey(query, columnValues, mapper.getClass()), () -> delegate.selectRows(query, columnValues, mapper, fetchSize));
+  }
+
+  /**
+   * Liefert das gecachte Ergebnis oder liest es und nimmt es auf. Die
+   * Fetch-Size geh&ouml;rt nicht zum Schl&uuml;ssel, sie &auml;ndert das Ergebnis
+   * nicht. In einer Transaktion wird direkt gelesen.
+   */
+  private <T> List<T> selectCached(List<Object> key, Select<T> select) throws SQLException {
+    if (delegate.isTransactionActive()) {
+      return select.select();
+    }
+
+    List<T> rows = cache.get(key);
+    if (Objects.nonNull(rows)) {
+      logger.log(Level.FINEST, "Ergebnis aus dem Cache: {0}", key.get(0));
+      return rows;
+    }
+
+    long generation = cache.getGeneration();
+    rows = select.select();
+    cache.put(key, rows, generation);
+    return rows;
+  }
+
+  /**
+   * Der Schl&uuml;ssel enth&auml;lt eine Kopie der Platzhalterwerte, damit eine
+   * sp&auml;tere &Auml;nderung der Liste durch den Aufrufer den Eintrag nicht
+   * verschiebt.
+   */
+  private static List<Object> cacheKey(String query, List<Object> columnValues, Object... resultType) {
+    List<Object> key = new ArrayList<>(resultType.length + 2);
+    key.add(query);
+    key.add(Objects.isNull(columnValues) ? null : Collections.unmodifiableList(new ArrayList<>(columnValues)));
+    key.addAll(Arrays.asList(resultType));
+    return key;
+  }
+
+  @FunctionalInterface
+  private interface Select<T> {
+    List<T> select() throws SQLException;
+  }
+
+  @Override
+  public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, Class<T> clazz) throws SQLException {
+    return delegate.selectRow(query, columnValues, clazz);
+  }
+
+  @Override
+  public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, RowMapper<T> mapper) throws SQLException {
+    return delegate.selectRow(query, columnValues, mapper);
+  }
+
+  @Override
+  public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, Class<T> clazz, int fetchSize) throws SQLException {
+    return delegate.selectRow(query, columnValues, clazz, fetchSize);
+  }
+
+  @Override
+  public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, RowMapper<T> mapper, int fetchSize) throws SQLException {
+    return delegate.selectRow(query, columnValues, mapper, fetchSize);
+  }
+
+  @Override
+  public <T> Stream<T> selectStream(String query, List<Object> columnValues, Class<T> clazz) throws SQLException {
+    return delegate.selectStream(query, columnValues, clazz);
+  }
+
+  @Override
+  public <T> Stream<T> selectStream(String query, List<Object> columnValues, RowMapper<T> mapper) throws SQLException {
+    return delegate.selectStream(query, columnValues, mapper);
+  }
+
+  @Override
+  public <T> ReactiveFlow.Publisher<T> selectPublisher(String query, List<Object> columnValues, Class<T> clazz, Executor executor) {
+    return delegate.selectPublisher(query, columnValues, clazz, executor);
+  }
+
+  @Override
+  public <T> ReactiveFlow.Publisher<T> selectPublisher(String query, List<Object> columnValues, RowMapper<T> mapper, Executor executor) {
+    return delegate.selectPublisher(query, columnValues, mapper, executor);
+  }
+
+  @Override
+  public <T> Stream<T> selectParallel(String query, List<Object> columnValues, List<QuerySlice> slices, Class<T> clazz, boolean ordered) {
+    return delegate.selectParallel(query, columnValues, slices, clazz, ordered);
+  }
+
+  @Override
+  public <T> Stream<T> selectParallel(String query, List<Object> columnValues, List<QuerySlice> slices, Supplier<? extends RowMapper<T>> mapperFactory,
+      boolean ordered) {
+    return delegate.selectParallel(query, columnValues, slices, mapperFactory, ordered);
+  }
+
+  @Override
+  public <T> KeysetPage<T> selectPage(String query, List<Object> columnValues, List<String> keyColumns, String cursorToken, int pageSize,
+      RowMapper<T> mapper) throws SQLException {
+    return delegate.selectPage(query, columnValues, keyColumns, cursorToken, pageSize, mapper);
+  }
+
+  @Override
+  public <T> KeysetPage<T> selectPage(String query, List<Object> columnValues, List<String> keyColumns, String cursorToken, int pageSize, Class<T> clazz)
+      throws SQLException {
+    return delegate.selectPage(query, columnValues, keyColumns, cursorToken, pageSize, clazz);
+  }
+
+  @Override
+  public <T> void batchInsert(List<T> typeObjects) throws SQLException, IllegalAccessException {
+    try {
+      delegate.batchInsert(typeObjects);
+    } finally {
+      invalidateEntities(typeObjects.iterator());
+    }
+  }
+
+  @Override
+  public void batchInsert(String query, List<List<Object>> rowsOfColumnValues) throws SQLException {
+    try {
+      delegate.batchInsert(query, rowsOfColumnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public <T> int batchInsert(Iterator<T> typeObjects) throws SQLException {
+    EntityTable table = new EntityTable();
+    try {
+      return delegate.batchInsert(table.wrap(typeObjects));
+    } finally {
+      table.invalidate();
+    }
+  }
+
+  @Override
+  public <T> int batchInsert(Stream<T> typeObjects) throws SQLException {
+    EntityTable table = new EntityTable();
+    try {
+      return delegate.batchInsert(typeObjects.peek(table::record));
+    } finally {
+      table.invalidate();
+    }
+  }
+
+  @Override
+  public <T> int batchUpsert(List<T> typeObjects) throws SQLException {
+    try {
+      return delegate.batchUpsert(typeObjects);
+    } finally {
+      invalidateEntities(typeObjects.iterator());
+    }
+  }
+
+  @Override
+  public <T> int batchUpsert(Iterator<T> typeObjects) throws SQLException {
+    EntityTable table = new EntityTable();
+    try {
+      return delegate.batchUpsert(table.wrap(typeObjects));
+    } finally {
+      table.invalidate();
+    }
+  }
+
+  @Override
+  public int batchInsert(String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    try {
+      return delegate.batchInsert(query, rowsOfColumnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public int batchInsert(String query, Stream<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    try {
+      return delegate.batchInsert(query, rowsOfColumnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public int resumableBatchInsert(String loadId, String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    try {
+      return delegate.resumableBatchInsert(loadId, query, rowsOfColumnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public <T> int resumableBatchInsert(String loadId, Iterator<T> typeObjects) throws SQLException {
+    EntityTable table = new EntityTable();
+    try {
+      return delegate.resumableBatchInsert(loadId, table.wrap(typeObjects));
+    } finally {
+      table.invalidate();
+    }
+  }
+
+  @Override
+  public <T> BulkInsertResult parallelBatchInsert(List<T> typeObjects, int parallelism) throws SQLException {
+    try {
+      return delegate.parallelBatchInsert(typeObjects, parallelism);
+    } finally {
+      invalidateEntities(typeObjects.iterator());
+    }
+  }
+
+  @Override
+  public BulkInsertResult parallelBatchInsert(String query, List<List<Object>> rowsOfColumnValues, int parallelism) throws SQLException {
+    try {
+      return delegate.parallelBatchInsert(query, rowsOfColumnValues, parallelism);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public int batchUpdate(String query, List<List<Object>> rowsOfColumnValues) throws SQLException {
+    try {
+      return delegate.batchUpdate(query, rowsOfColumnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public int batchUpdate(String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    try {
+      return delegate.batchUpdate(query, rowsOfColumnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public int batchUpdate(String query, Stream<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    try {
+      return delegate.batchUpdate(query, rowsOfColumnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public int delete(String query, List<Object> columnValues) throws SQLException {
+    try {
+      return delegate.delete(query, columnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public void executeDDL(List<String> queries) throws SQLException {
+    try {
+      delegate.executeDDL(queries);
+    } finally {
+      invalidateTable(null);
+    }
+  }
+
+  @Override
+  public void executeDDL(String query, List<Object> placeholder) throws SQLException {
+    try {
+      delegate.executeDDL(query, placeholder);
+    } finally {
+      invalidateTable(null);
+    }
+  }
+
+  @Override
+  public void insert(String query, List<Object> columnValues) throws SQLException {
+    try {
+      delegate.insert(query, columnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public <T> void insert(T typedObject) throws SQLException, IllegalAccessException {
+    try {
+      delegate.insert(typedObject);
+    } finally {
+      invalidateEntities(Collections.singletonList(typedObject).iterator());
+    }
+  }
+
+  @Override
+  public int update(String query, List<Object> columnValues) throws SQLException {
+    try {
+      return delegate.update(query, columnValues);
+    } finally {
+      invalidateQuery(query);
+    }
+  }
+
+  @Override
+  public void batchInsert(String tableName, List<String> columns, List<Map<String, String>> rows) throws SQLException {
+    try {
+      delegate.batchInsert(tableName, columns, rows);
+    } finally {
+      invalidateTable(tableName);
+    }
+  }
+
+  @Override
+  public int batchInsert(String tableName, List<String> columns, Iterator<? extends Map<String, String>> rows) throws SQLException {
+    try {
+      return delegate.batchInsert(tableName, columns, rows);
+    } finally {
+      invalidateTable(tableName);
+    }
+  }
+
+  @Override
+  public int resumableBatchInsert(String loadId, String tableName, List<String> columns, Iterator<? extends Map<String, String>> rows)
+      throws SQLException {
+    try {
+      return delegate.resumableBatchInsert(loadId, tableName, columns, rows);
+    } finally {
+      invalidateTable(tableName);
+    }
+  }
+
+  @Override
+  public void begin() {
+    delegate.begin();
+  }
+
+  /**
+   * Committed die Transaktion und invalidiert danach alle in ihr
+   * beschriebenen Tabellen noch einmal.
+   */
+  @Override
+  public void commit() {
+    delegate.commit();
+    invalidateWrittenTables();
+  }
+
+  /**
+   * Rollt die Transaktion zur&uuml;ck und invalidiert danach alle in ihr
+   * beschriebenen Tabellen noch einmal.
+   */
+  @Override
+  public void rollback() {
+    delegate.rollback();
+    invalidateWrittenTables();
+  }
+
+  @Override
+  public boolean isTransactionActive() {
+    return delegate.isTransactionActive();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+    resetWrittenTables();
+  }
+
+  private void invalidateWrittenTables() {
+    Set<String> tables = resetWrittenTables();
+    if (Objects.isNull(tables)) {
+      cache.invalidateAll();
+    } else {
+      tables.forEach(cache::invalidate);
+    }
+  }
+
+  private synchronized Set<String> resetWrittenTables() {
+    Set<String> tables = writtenTables;
+    writtenTables = new LinkedHashSet<>();
+    return tables;
+  }
+
+  private void invalidateQuery(String query) {
+    rememberWrittenTable(cache.invalidateQuery(query));
+  }
+
+  /**
+   * Invalidiert die Tabelle, <code>null</code> invalidiert alles.
+   */
+  private void invalidateTable(String tableName) {
+    if (Objects.isNull(tableName)) {
+      cache.invalidateAll();
+    } else {
+      cache.invalidate(tableName);
+    }
+    rememberWrittenTable(tableName);
+  }
+
+  private void invalidateEntities(Iterator<?> typeObjects) {
+    EntityTable table = new EntityTable();
+    if (typeObjects.hasNext()) {
+      table.record(typeObjects.next());
+    }
+    table.invalidate();
+  }
+
+  private synchronized void rememberWrittenTable(String tableName) {
+    if (Objects.isNull(tableName)) {
+      writtenTables = null;
+    } else if (Objects.nonNull(writtenTables)) {
+      writtenTables.add(tableName);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CachingDatabaseOperation [delegate=%s, cache=%s]", delegate, cache);
+  }
+
+  /**
+   * Merkt sich die Tabelle der ersten geschriebenen Entity. Die erste Entity
+   * bestimmt wie beim Insert die Tabelle.
+   */
+  private final class EntityTable {
+
+    private String tableName;
+    private boolean recorded;
+
+    private void record(Object typedObject) {
+      if (!recorded && Objects.nonNull(typedObject)) {
+        recorded = true;
+        TableName annotation = metadataRegistry.getMetadata(typedObject.getClass()).getTableName();
+        tableName = Objects.isNull(annotation) ? null : annotation.name();
+      }
+    }
+
+    private <T> Iterator<T> wrap(Iterator<T> typeObjects) {
+      return new Iterator<T>() {
+        @Override
+        public boolean hasNext() {
+          return typeObjects.hasNext();
+        }
+
+        @Override
+        public T next() {
+          T typedObject = typeObjects.next();
+          record(typedObject);
+          return typedObject;
+        }
+      };
+    }
+
+    private void invalidate() {
+      if (recorded) {
+        invalidateTable(tableName);
+      }
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+/**
+ * Speichert pro Ladevorgang (Load-Id) den Offset der zuletzt committeten
+ * Zeile. Ein nach einem Abbruch neu gestarteter Ladevorgang mit derselben
+ * Load-Id &uuml;berspringt die bereits committeten Zeilen. Nach einem
+ * erfolgreichen Lauf wird der Checkpoint entfernt, ein weiterer Lauf mit
+ * derselben Id schreibt wieder alle Zeilen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public interface CheckpointStore {
+
+  /**
+   * @param loadId
+   *          Id des Ladevorgangs
+   * @return Anzahl bereits committeter Zeilen, 0 wenn es keinen Checkpoint
+   *         gibt.
+   */
+  public long getCommittedOffset(String loadId);
+
+  /**
+   * Speichert den Offset nach einem Commit.
+   *
+   * @param loadId
+   *          Id des Ladevorgangs
+   * @param offset
+   *          Anzahl committeter Zeilen
+   */
+  public void saveCommittedOffset(String loadId, long offset);
+
+  /**
+   * Entfernt den Checkpoint, der Ladevorgang beginnt danach wieder bei 0. Wird
+   * nach einem erfolgreichen Lauf aufgerufen.
+   *
+   * @param loadId
+   *          Id des Ladevorgangs
+   */
+  public void clear(String loadId);
+
+}
@@ -0,0 +1,48 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Liest und setzt einen Spaltenwert eines bestimmten Java-Typs &uuml;ber den
+ * Spaltenindex. Ein Codec wird einmal pro Typ von {@link SQLTypeMapper}
+ * ermittelt und pro {@link ResultSet} bzw. {@link PreparedStatement}
+ * wiederverwendet.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public interface ColumnCodec {
+
+  /**
+   * Liest den Wert der Spalte <code>index</code> aus der aktuellen Zeile.
+   *
+   * @param resultSet
+   *          ein {@link ResultSet}-Objekt
+   * @param index
+   *          Spaltenindex ab 1
+   * @return gelesener Wert
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  public Object read(ResultSet resultSet, int index) throws SQLException;
+
+  /**
+   * Setzt den Platzhalter <code>index</code>. Ein <code>null</code> Wert wird
+   * als SQL NULL gesetzt.
+   *
+   * @param preparedStatement
+   *          ein {@link PreparedStatement}-Objekt
+   * @param index
+   *          Platzhalterindex ab 1
+   * @param value
+   *          der Wert oder <code>null</code>
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  public void write(PreparedStatement preparedStatement, int index, Object value) throws SQLException;
+
+}
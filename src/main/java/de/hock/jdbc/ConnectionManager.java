@@ -76,4 +76,12 @@ public interface ConnectionManager {
    *         false sonst
    */
   public boolean istTransactionalConnectionManager();
+
+  /**
+   * @return true, wenn im aktuellen Thread eine Transaktion l&auml;uft und
+   *         {@link #getConnection()} deren Connection liefert.
+   */
+  default boolean isTransactionActive() {
+    return false;
+  }
 }
@@ -6,8 +6,12 @@
 package de.hock.jdbc;
 
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Eine hilfe Klasse f&uuml;r Plain Datenbank Operation.
@@ -20,12 +24,134 @@ public interface DatabaseOperation extends Transactional {
 
   public void batchInsert(String query, List<List<Object>> rowsOfColumnValues) throws SQLException;
 
+  /**
+   * Schreibt die Entities, w&auml;hrend sie vom Iterator geliefert werden. Es
+   * wird immer nur ein Batch im Speicher gehalten. Die erste Entity bestimmt
+   * Tabelle und Query. F&uuml;r einen {@link java.util.Spliterator} kann
+   * {@link java.util.Spliterators#iterator(java.util.Spliterator)} verwendet
+   * werden.
+   *
+   * @param typeObjects
+   *          die Entities, mit {@link TableName} annotiert
+   * @return Anzahl geschriebener Datens&auml;tze, 0 f&uuml;r einen leeren
+   *         Iterator
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  public <T> int batchInsert(Iterator<T> typeObjects) throws SQLException;
+
+  /**
+   * Wie {@link #batchInsert(Iterator)}. Der Stream wird nicht geschlossen.
+   */
+  public <T> int batchInsert(Stream<T> typeObjects) throws SQLException;
+
+  /**
+   * Schreibt die Entities per MERGE: vorhandene Zeilen werden &uuml;ber die
+   * {@link Key}-Spalten gefunden und aktualisiert, fehlende eingef&uuml;gt. Das
+   * Query wird aus {@link TableName}, {@link Column} und {@link Key} erzeugt,
+   * in {@link EntityMetadata} gehalten und wie beim Insert batchweise
+   * ausgef&uuml;hrt.
+   *
+   * @param typeObjects
+   *          die Entities, mit {@link TableName} annotiert und mit mindestens
+   *          einem {@link Key}-Feld
+   * @return Anzahl eingef&uuml;gter oder aktualisierter Datens&auml;tze
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  public <T> int batchUpsert(List<T> typeObjects) throws SQLException;
+
+  /**
+   * Wie {@link #batchUpsert(List)}, die Entities werden aber erst beim
+   * Schreiben gelesen.
+   */
+  public <T> int batchUpsert(Iterator<T> typeObjects) throws SQLException;
+
+  /**
+   * Wie {@link #batchInsert(String, List)}, die Zeilen werden aber erst beim
+   * Schreiben gelesen und batchweise geschrieben.
+   *
+   * @return Anzahl geschriebener Datens&auml;tze
+   */
+  public int batchInsert(String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException;
+
+  /**
+   * Wie {@link #batchInsert(String, Iterator)}. Der Stream wird nicht
+   * geschlossen.
+   */
+  public int batchInsert(String query, Stream<? extends List<Object>> rowsOfColumnValues) throws SQLException;
+
+  /**
+   * Wie {@link #batchInsert(String, Iterator)}, aber wiederaufnehmbar: nach
+   * jedem periodischen Commit wird der Offset f&uuml;r <code>loadId</code> im
+   * {@link CheckpointStore} gespeichert. Ein nach einem Abbruch neu
+   * gestarteter Lauf mit derselben Id &uuml;berspringt die bereits committeten
+   * Zeilen. Nach einem erfolgreichen Lauf wird der Checkpoint entfernt, ein
+   * weiterer Lauf schreibt wieder alle Zeilen. Der Iterator muss die Zeilen bei
+   * jedem Lauf in derselben Reihenfolge liefern.
+   *
+   * @param loadId
+   *          eindeutige Id des Ladevorgangs
+   * @return Anzahl in diesem Lauf geschriebener Datens&auml;tze
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  public int resumableBatchInsert(String loadId, String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException;
+
+  /**
+   * Wie {@link #resumableBatchInsert(String, String, Iterator)}, f&uuml;r
+   * Entities.
+   */
+  public <T> int resumableBatchInsert(String loadId, Iterator<T> typeObjects) throws SQLException;
+
+  /**
+   * Schreibt die Entities parallel &uuml;ber mehrere Connections aus dem Pool.
+   * Jede Partition hat eigene Batches und einen eigenen Commit.
+   *
+   * @param typeObjects
+   *          die Entities, mit {@link TableName} annotiert
+   * @param parallelism
+   *          maximale Anzahl paralleler Connections
+   * @return aggregiertes Ergebnis mit Fehlern pro Partition
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  public <T> BulkInsertResult parallelBatchInsert(List<T> typeObjects, int parallelism) throws SQLException;
+
+  /**
+   * Wie {@link #parallelBatchInsert(List, int)}, f&uuml;r ein Insert-Query mit
+   * Platzhalterwerten pro Zeile.
+   */
+  public BulkInsertResult parallelBatchInsert(String query, List<List<Object>> rowsOfColumnValues, int parallelism) throws SQLException;
+
   public int batchUpdate(String query, List<List<Object>> rowsOfColumnValues) throws SQLException;
 
+  /**
+   * Wie {@link #batchUpdate(String, List)}, die Zeilen werden aber erst beim
+   * Schreiben gelesen und batchweise geschrieben.
+   */
+  public int batchUpdate(String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException;
+
+  /**
+   * Wie {@link #batchUpdate(String, Iterator)}. Der Stream wird nicht
+   * geschlossen.
+   */
+  public int batchUpdate(String query, Stream<? extends List<Object>> rowsOfColumnValues) throws SQLException;
+
   public int delete(String query, List<Object> columnValues) throws SQLException;
 
+  /**
+   * F&uuml;hrt DDL aus. Da Oracle DDL implizit committed, ist das in einer
+   * Transaktion nicht erlaubt.
+   *
+   * @throws IllegalStateException
+   *           wenn im aktuellen Thread eine Transaktion l&auml;uft
+   */
   public void executeDDL(List<String> queries) throws SQLException;
 
+  /**
+   * Wie {@link #executeDDL(List)}, mit Platzhalterwerten.
+   */
   public void executeDDL(String query, List<Object> placeholder) throws SQLException;
 
   public void insert(String query, List<Object> columnValues) throws SQLException;
@@ -38,14 +164,157 @@ public interface DatabaseOperation extends Transactional {
 
   public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, RowMapper<T> mapper) throws SQLException;
 
+  /**
+   * Wie {@link #selectRow(String, List, Class)}, aber mit fester Fetch-Size
+   * f&uuml;r diesen Aufruf statt der konfigurierten.
+   *
+   * @param fetchSize
+   *          Anzahl Zeilen pro Roundtrip, gr&ouml;&szlig;er als 0
+   */
+  public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, Class<T> clazz, int fetchSize) throws SQLException;
+
+  /**
+   * Wie {@link #selectRow(String, List, RowMapper)}, aber mit fester
+   * Fetch-Size f&uuml;r diesen Aufruf statt der konfigurierten.
+   *
+   * @param fetchSize
+   *          Anzahl Zeilen pro Roundtrip, gr&ouml;&szlig;er als 0
+   */
+  public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, RowMapper<T> mapper, int fetchSize) throws SQLException;
+
   public <T> List<T> selectRows(String query, List<Object> columnValues, Class<T> clazz) throws SQLException;
 
+  /**
+   * Liefert die Zeilen als Stream, der die Zeilen erst beim Verarbeiten aus
+   * dem {@link java.sql.ResultSet} liest. Der Stream h&auml;lt Statement und
+   * Connection, bis er vollst&auml;ndig gelesen oder geschlossen wird, und
+   * sollte deshalb in try-with-resources verwendet werden. Ein
+   * {@link SQLException} beim Lesen wird als {@link RuntimeException}
+   * weitergegeben.
+   *
+   * @return sequentieller Stream der Entities
+   * @throws SQLException
+   *           falls das Query nicht ausgef&uuml;hrt werden kann.
+   */
+  public <T> Stream<T> selectStream(String query, List<Object> columnValues, Class<T> clazz) throws SQLException;
+
+  /**
+   * Wie {@link #selectStream(String, List, Class)}, mit einem
+   * {@link RowMapper}.
+   */
+  public <T> Stream<T> selectStream(String query, List<Object> columnValues, RowMapper<T> mapper) throws SQLException;
+
+  /**
+   * Liest das Query in disjunkten Teilen ({@link QuerySlice}) parallel, jeden
+   * Teil auf einer eigenen Connection aus dem Pool. Die Anzahl gleichzeitiger
+   * Teile ist durch die maximale Pool-Gr&ouml;&szlig;e begrenzt. Wie bei
+   * {@link #selectStream(String, List, Class)} sollte der Stream geschlossen
+   * werden, ein Fehler in einem Teil bricht alle Teile ab.
+   *
+   * @param slices
+   *          disjunkte Teile, z.B. aus {@link QuerySlice#range} oder
+   *          {@link QuerySlice#modulo}
+   * @param ordered
+   *          <code>true</code>, um die Zeilen in der Reihenfolge der Teile zu
+   *          liefern, sonst in der Reihenfolge, in der sie gelesen werden
+   * @return sequentieller Stream der Entities aller Teile
+   */
+  public <T> Stream<T> selectParallel(String query, List<Object> columnValues, List<QuerySlice> slices, Class<T> clazz, boolean ordered);
+
+  /**
+   * Wie {@link #selectParallel(String, List, List, Class, boolean)}. Jeder Teil
+   * bekommt einen eigenen {@link RowMapper} aus <code>mapperFactory</code>.
+   */
+  public <T> Stream<T> selectParallel(String query, List<Object> columnValues, List<QuerySlice> slices, Supplier<? extends RowMapper<T>> mapperFactory,
+      boolean ordered);
+
   public <T> List<T> selectRows(String query, List<Object> columnValues, RowMapper<T> mapper) throws SQLException;
 
+  /**
+   * Liefert die Zeilen als {@link ReactiveFlow.Publisher}. Das Select wird pro
+   * Subscriber bei der ersten Anforderung ausgef&uuml;hrt und nur so schnell
+   * gelesen, wie angefordert wird; siehe {@link SelectPublisher}.
+   *
+   * @param executor
+   *          f&uuml;hrt das Lesen aus, <code>null</code> f&uuml;r einen
+   *          gemeinsamen Thread-Pool
+   */
+  public <T> ReactiveFlow.Publisher<T> selectPublisher(String query, List<Object> columnValues, Class<T> clazz, Executor executor);
+
+  /**
+   * Wie {@link #selectPublisher(String, List, Class, Executor)} mit einem
+   * {@link RowMapper}. Jeder Subscriber verwendet denselben Mapper.
+   */
+  public <T> ReactiveFlow.Publisher<T> selectPublisher(String query, List<Object> columnValues, RowMapper<T> mapper, Executor executor);
+
+  /**
+   * Wie {@link #selectRows(String, List, Class)}, mit fester Fetch-Size.
+   */
+  public <T> List<T> selectRows(String query, List<Object> columnValues, Class<T> clazz, int fetchSize) throws SQLException;
+
+  /**
+   * Wie {@link #selectRows(String, List, RowMapper)}, mit fester Fetch-Size.
+   */
+  public <T> List<T> selectRows(String query, List<Object> columnValues, RowMapper<T> mapper, int fetchSize) throws SQLException;
+
+  /**
+   * Liest eine Seite per Keyset-Paginierung. Statt OFFSET wird nach den
+   * Schl&uuml;sselwerten der letzten Zeile gefiltert
+   * (<code>k1 &gt; ? OR (k1 = ? AND k2 &gt; ?)</code>), sortiert und auf
+   * <code>pageSize</code> Zeilen begrenzt, so dass jede Seite gleich viel
+   * kostet, egal wie tief sie liegt. Die Schl&uuml;sselspalten m&uuml;ssen
+   * zusammen eindeutig und nicht NULL sein und werden aufsteigend sortiert.
+   *
+   * @param keyColumns
+   *          Spalten des Queries, nach denen sortiert wird
+   * @param cursorToken
+   *          {@link KeysetPage#getNextToken()} der vorherigen Seite oder
+   *          <code>null</code> f&uuml;r die erste Seite
+   * @param pageSize
+   *          maximale Anzahl Zeilen der Seite
+   * @return die Seite mit dem Token f&uuml;r die n&auml;chste Seite
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   * @throws IllegalArgumentException
+   *           falls eine Schl&uuml;sselspalte der letzten Zeile NULL ist.
+   */
+  public <T> KeysetPage<T> selectPage(String query, List<Object> columnValues, List<String> keyColumns, String cursorToken, int pageSize,
+      RowMapper<T> mapper) throws SQLException;
+
+  /**
+   * Wie {@link #selectPage(String, List, List, String, int, RowMapper)}, die
+   * Schl&uuml;sselwerte werden aus den Feldern der Entity gelesen.
+   */
+  public <T> KeysetPage<T> selectPage(String query, List<Object> columnValues, List<String> keyColumns, String cursorToken, int pageSize, Class<T> clazz)
+      throws SQLException;
+
   public int update(String query, List<Object> columnValues) throws SQLException;
 
   public void batchInsert(String tableName, List<String> columns, List<Map<String, String>> rows) throws SQLException;
 
+  /**
+   * Wie {@link #batchInsert(String, List, List)}, die Zeilen werden aber erst
+   * beim Schreiben gelesen, formatiert und batchweise geschrieben.
+   *
+   * @return Anzahl geschriebener Datens&auml;tze
+   */
+  public int batchInsert(String tableName, List<String> columns, Iterator<? extends Map<String, String>> rows) throws SQLException;
+
+  /**
+   * Wie {@link #resumableBatchInsert(String, String, Iterator)}, f&uuml;r
+   * Tabellenzeilen wie bei {@link #batchInsert(String, List, Iterator)}.
+   */
+  public int resumableBatchInsert(String loadId, String tableName, List<String> columns, Iterator<? extends Map<String, String>> rows)
+      throws SQLException;
+
+  /**
+   * @return <code>true</code>, wenn im aktuellen Thread eine mit
+   *         {@link #begin()} gestartete Transaktion l&auml;uft.
+   */
+  public default boolean isTransactionActive() {
+    return false;
+  }
+
   // public <T> List<T> selectRows(String selectSql, Map<String, Object>
   // placeholder, RowMapper<T> mapper) throws SQLException;
 
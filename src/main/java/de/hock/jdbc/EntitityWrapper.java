@@ -3,24 +3,25 @@
  */
 package de.hock.jdbc;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Diese Klasse bildet POJO aus gelesene Datens&auml;tze.
+ * Diese Klasse bildet POJO aus gelesene Datens&auml;tze. Klassen ohne
+ * Default-Konstruktor (z.B. Records) werden &uuml;ber den kanonischen
+ * Konstruktor erzeugt.
  *
  * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
  * @param <T>
@@ -30,19 +31,24 @@ public class EntitityWrapper<T> implements ReadItem<T> {
   private static final Logger logger = Logger.getLogger(EntitityWrapper.class.getSimpleName());;
 
   private final SQLTypeMapper datatypeMapper = new SQLTypeMapper();
-  private final EntityReflection reflection = new EntityReflection();
+  private final EntityMetadataRegistry metadataRegistry = EntityMetadataRegistry.getInstance();
   private final ParameterValidator validator = new ParameterValidator();
-  private final Map<String, Column> annotatedFields = new HashMap<>();
   private final List<String> columnNames = new ArrayList<>();
-  private final Map<String, Field> fields = new HashMap<>();
-  private final Map<String, Method> methods = new HashMap<>();
 
+  private EntityMetadata<T> metadata;
+  private ColumnCodec[] columnCodecs;
+  private BiConsumer<Object, Object>[] columnSetters;
+  private int[] argumentPositions;
+  private Object[] defaultArguments;
+  private Object[] arguments;
   private Boolean isEnum;
   private Boolean isPrimitive;
   private Connection connection;
   private Class<T> entity;
   private ResultSet resultSet;
   private Statement statement;
+  private FetchSizeAdvisor fetchSizeAdvisor;
+  private ConnectionManager connectionManager;
 
   /**
    * Erzeugt ein EntityWrapper-Objekt f&uuml;r die angegebene Entity.
@@ -66,15 +72,9 @@ public class EntitityWrapper<T> implements ReadItem<T> {
    */
   public void parseEntity(Class<T> entitiy) {
     this.entity = entitiy;
-    isEnum = reflection.isEnum(entitiy);
-    isPrimitive = reflection.isPremitiveType(entitiy);
-
-    if (!(isEnum || isPrimitive)) {
-      methods.putAll(reflection.getSetterMethods(entitiy));
-      fields.putAll(reflection.getDeclaredFields(entitiy));
-      annotatedFields.putAll(reflection.getAnnotatedFields(entitiy, Column.class));
-      mapFieldsAndMethodsByColumnname(methods, fields, annotatedFields);
-    }
+    metadata = metadataRegistry.getMetadata(entitiy);
+    isEnum = metadata.isEnum();
+    isPrimitive = metadata.isPrimitive();
   }
 
   /**
@@ -92,9 +92,79 @@ public class EntitityWrapper<T> implements ReadItem<T> {
     this.connection = connection;
     this.statement = statement;
     columnNames.addAll(getColumnsFromResultSet());
-    if (!(isEnum || isPrimitive)) {
-      validator.verifyMethodsname(columnNames, methods, entity.getName());
+    if (!(isEnum || isPrimitive) && metadata.isConstructorMapped()) {
+      validator.verifyConstructorParameters(columnNames, metadata.getConstructorParameters(), entity.getName());
+      resolveConstructorArguments();
+    } else if (!(isEnum || isPrimitive)) {
+      validator.verifyMethodsname(columnNames, metadata.getSetterMethods(), entity.getName());
+      validator.verifyArguments(metadata.getConstructor(), String.format("Die Entityklasse %s hat keinen Default-Konstruktor", entity.getName()));
+      resolveColumnAccessors();
+    } else {
+      columnCodecs = new ColumnCodec[] { datatypeMapper.getCodec(entity) };
+    }
+  }
+
+  /**
+   * Statement und Connection werden beim Schlie&szlig;en &uuml;ber den
+   * {@link ConnectionManager} freigegeben, damit eine Connection einer
+   * laufenden Transaktion offen bleibt.
+   */
+  void setConnectionManager(ConnectionManager connectionManager) {
+    this.connectionManager = connectionManager;
+  }
+
+  /**
+   * Passt die Fetch-Size beim Lesen an, <code>null</code> f&uuml;r eine feste
+   * Fetch-Size.
+   */
+  void setFetchSizeAdvisor(FetchSizeAdvisor fetchSizeAdvisor) {
+    this.fetchSizeAdvisor = fetchSizeAdvisor;
+  }
+
+  /**
+   * Ermittelt Codec und Setter-Funktion pro Spalte einmal pro ResultSet, so
+   * dass beim Lesen einer Zeile nur noch &uuml;ber den Spaltenindex gelesen
+   * wird.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private void resolveColumnAccessors() {
+    Map<String, Field> fields = metadata.getFields();
+    Map<String, BiConsumer<Object, Object>> setters = metadata.getSetters();
+
+    Class<?>[] columnTypes = new Class<?>[columnNames.size()];
+    columnSetters = new BiConsumer[columnNames.size()];
+    for (int index = 0; index < columnNames.size(); index++) {
+      String columnName = columnNames.get(index);
+      columnTypes[index] = fields.get(columnName).getType();
+      columnSetters[index] = setters.get(columnName);
+    }
+    columnCodecs = datatypeMapper.getCodecs(columnTypes);
+  }
+
+  /**
+   * Ermittelt Codec und Parameter-Position pro Spalte einmal pro ResultSet.
+   * Der Argument-Puffer wird f&uuml;r jede Zeile wiederverwendet, nicht
+   * gelesene primitive Parameter bekommen ihren Default-Wert.
+   */
+  private void resolveConstructorArguments() {
+    Map<String, Integer> parameters = metadata.getConstructorParameters();
+    List<Class<?>> parameterTypes = metadata.getConstructorParameterTypes();
+
+    Class<?>[] columnTypes = new Class<?>[columnNames.size()];
+    argumentPositions = new int[columnNames.size()];
+    for (int index = 0; index < columnNames.size(); index++) {
+      int position = parameters.get(columnNames.get(index));
+      argumentPositions[index] = position;
+      columnTypes[index] = parameterTypes.get(position);
     }
+    columnCodecs = datatypeMapper.getCodecs(columnTypes);
+
+    defaultArguments = new Object[parameterTypes.size()];
+    for (int position = 0; position < defaultArguments.length; position++) {
+      Class<?> type = parameterTypes.get(position);
+      defaultArguments[position] = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+    arguments = new Object[defaultArguments.length];
   }
 
   /**
@@ -126,18 +196,46 @@ public class EntitityWrapper<T> implements ReadItem<T> {
    * @throws EntitityWrapperException
    *           falls ein Fehler tritt auf.
    */
-  private T mapToEntity() throws SQLException, ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException {
-    T object = entity.newInstance();
+  private T mapToEntity() throws SQLException {
+    T object = metadata.getConstructor().get();
 
-    for (String columnName : columnNames) {
-      Class<?> clazz = fields.get(columnName).getType();
-      Method method = methods.get(columnName);
-      method.invoke(object, datatypeMapper.getObject(resultSet, columnName, clazz));
+    for (int index = 0; index < columnSetters.length; index++) {
+      columnSetters[index].accept(object, readColumn(index));
     }
 
     return object;
   }
 
+  /**
+   * Liest alle Spalten in den Argument-Puffer und erzeugt das Objekt mit dem
+   * kanonischen Konstruktor.
+   *
+   * @return neue type-Objekt.
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  private T constructEntity() throws SQLException {
+    System.arraycopy(defaultArguments, 0, arguments, 0, arguments.length);
+
+    for (int index = 0; index < argumentPositions.length; index++) {
+      Object value = readColumn(index);
+      if (Objects.nonNull(value)) {
+        arguments[argumentPositions[index]] = value;
+      }
+    }
+
+    return metadata.getCanonicalConstructor().apply(arguments);
+  }
+
+  /**
+   * Liest die Spalte mit dem vorher ermittelten Codec, <code>null</code> wenn
+   * es f&uuml;r den Typ keinen Codec gibt.
+   */
+  private Object readColumn(int index) throws SQLException {
+    ColumnCodec codec = columnCodecs[index];
+    return Objects.isNull(codec) ? null : codec.read(resultSet, index + 1);
+  }
+
   @Override
   public void close() {
     try {
@@ -148,6 +246,11 @@ public class EntitityWrapper<T> implements ReadItem<T> {
       logger.log(Level.SEVERE, "Fehler beim ResultSet zu schlißen.", sqlEx);
     }
 
+    if (Objects.nonNull(connectionManager)) {
+      connectionManager.close(connection, statement);
+      return;
+    }
+
     try {
       if (Objects.nonNull(statement)) {
         statement.close();
@@ -170,40 +273,16 @@ public class EntitityWrapper<T> implements ReadItem<T> {
   public T nextItem() throws SQLException {
     Object object = null;
 
-    try {
-      if (resultSet.next()) {
-        if (isEnum) {
-          object = datatypeMapper.getEnumValue(resultSet, columnNames.get(0), entity);
-        } else if (isPrimitive) {
-          object = datatypeMapper.getObject(resultSet, columnNames.get(0), entity);
-        } else {
-          object = mapToEntity();
-        }
+    if (Objects.isNull(fetchSizeAdvisor) ? resultSet.next() : fetchSizeAdvisor.next(resultSet)) {
+      if (isEnum || isPrimitive) {
+        object = readColumn(0);
+      } else if (Objects.nonNull(arguments)) {
+        object = constructEntity();
+      } else {
+        object = mapToEntity();
       }
-    } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | InvocationTargetException ex) {
-      throw new RuntimeException(ex);
     }
 
     return (T) object;
   }
-
-  /**
-   * Falls Entity Feldernamen mit {@link Column} annotatiert werden, dann wird
-   * Methode und Feldern mit {@link Column#name()} in interne {@link Map}
-   * speichert.
-   *
-   * @param methods
-   * @param fields
-   * @param columnAnnotations
-   */
-  private void mapFieldsAndMethodsByColumnname(Map<String, Method> methods, Map<String, Field> fields, Map<String, Column> columnAnnotations) {
-    columnAnnotations.entrySet().forEach(entry -> {
-      String keyName = entry.getKey();
-
-      Method method = methods.get(keyName);
-      Field field = fields.get(keyName);
-      methods.put(entry.getValue().name(), method);
-      fields.put(entry.getValue().name(), field);
-    });
-  }
 }
@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.util.List;
+
+/**
+ * Ein {@link ParameterBinder} f&uuml;r eine mit {@link TableName} annotierte
+ * Entity. Er kennt die Tabelle und die Spalten in Bind-Reihenfolge, daraus
+ * wird das passende Insert-Query erzeugt.
+ *
+ * Implementierungen werden von
+ * {@link de.hock.jdbc.processor.EntityMapperProcessor} generiert.
+ *
+ * @param <T>
+ *          Typ der Entity
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public interface EntityBinder<T> extends ParameterBinder<T> {
+
+  public String getTableName();
+
+  /**
+   * @return Spaltennamen in der Reihenfolge, in der
+   *         {@link #bind(java.sql.PreparedStatement, Object)} die Platzhalter
+   *         setzt.
+   */
+  public List<String> getColumnNames();
+
+}
@@ -0,0 +1,477 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.hock.jdbc.processor.EntityMapperProcessor;
+
+/**
+ * Unver&auml;nderliche Metadaten einer Entity-Klasse. Spaltenliste, Felder,
+ * Setter-Methode bzw. kanonischer Konstruktor, {@link TableName}, das
+ * Insert-Query und das MERGE-Query f&uuml;r Upserts werden einmal pro
+ * Klasse ermittelt und danach von {@link EntityMetadataRegistry}
+ * wiederverwendet.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ * @param <T>
+ *          Typ der Entity
+ */
+public class EntityMetadata<T> {
+
+  private static final Logger logger = Logger.getLogger(EntityMetadata.class.getSimpleName());
+
+  private static final EntityReflection reflection = new EntityReflection();
+  private static final PlaceholderSetter placeholderSetter = new PlaceholderSetter();
+  private static final SQLTypeMapper typeMapper = new SQLTypeMapper();
+  private static final AccessorFactory accessorFactory = new AccessorFactory();
+
+  private final Class<T> entity;
+  private final boolean isEnum;
+  private final boolean isPrimitive;
+  private final TableName tableName;
+  private final List<String> columnNames;
+  private final Map<String, Field> fields;
+  private final Map<String, Method> setterMethods;
+  private final String insertQuery;
+  private final List<String> keyColumns;
+  private final String upsertQuery;
+  private final Supplier<T> constructor;
+  private final Function<Object[], T> canonicalConstructor;
+  private final Map<String, Integer> constructorParameters;
+  private final List<Class<?>> constructorParameterTypes;
+  private final Map<String, BiConsumer<Object, Object>> setters;
+  private final List<Function<Object, Object>> columnGetters;
+  private final List<ColumnCodec> columnCodecs;
+  private final Supplier<RowMapper<T>> generatedRowMapper;
+  private final ParameterBinder<T> binder;
+
+  EntityMetadata(Class<T> entity) {
+    this.entity = entity;
+    isEnum = reflection.isEnum(entity);
+    isPrimitive = reflection.isPremitiveType(entity);
+    tableName = reflection.getAnnotation(entity, TableName.class);
+
+    if (isEnum || isPrimitive) {
+      columnNames = Collections.emptyList();
+      fields = Collections.emptyMap();
+      setterMethods = Collections.emptyMap();
+      insertQuery = null;
+      keyColumns = Collections.emptyList();
+      upsertQuery = null;
+      constructor = null;
+      canonicalConstructor = null;
+      constructorParameters = Collections.emptyMap();
+      constructorParameterTypes = Collections.emptyList();
+      setters = Collections.emptyMap();
+      columnGetters = Collections.emptyList();
+      columnCodecs = Collections.emptyList();
+      generatedRowMapper = null;
+      binder = null;
+      return;
+    }
+
+    Map<String, Field> declaredFields = reflection.getDeclaredFields(entity, Column.class);
+    declaredFields.values().forEach(field -> field.setAccessible(true));
+    fields = Collections.unmodifiableMap(declaredFields);
+    columnNames = Collections.unmodifiableList(reflection.getColumnNameAlias(entity));
+    setterMethods = Collections.unmodifiableMap(mapSetterByColumnname(entity));
+    constructor = accessorFactory.createConstructor(entity);
+
+    Constructor<T> canonical = null;
+    List<Field> canonicalFields = Collections.emptyList();
+    if (Objects.isNull(constructor)) {
+      canonicalFields = reflection.getCanonicalFields(entity);
+      canonical = reflection.getCanonicalConstructor(entity, canonicalFields);
+    }
+    if (Objects.nonNull(canonical)) {
+      canonicalConstructor = accessorFactory.createConstructor(canonical);
+      constructorParameters = Collections.unmodifiableMap(mapParameterByColumnname(canonicalFields));
+      constructorParameterTypes = Collections.unmodifiableList(Arrays.asList(canonical.getParameterTypes()));
+      logger.log(Level.FINE, "Entity {0} wird ueber den kanonischen Konstruktor erzeugt.", entity.getName());
+    } else {
+      canonicalConstructor = null;
+      constructorParameters = Collections.emptyMap();
+      constructorParameterTypes = Collections.emptyList();
+    }
+
+    setters = Collections.unmodifiableMap(createSetters(setterMethods));
+    columnGetters = Collections.unmodifiableList(createColumnGetters(columnNames, fields));
+    columnCodecs = Collections.unmodifiableList(createColumnCodecs(columnNames, fields));
+    generatedRowMapper = findGeneratedRowMapper(entity);
+
+    EntityBinder<T> generatedBinder = findGeneratedBinder(entity);
+    String table;
+    List<String> boundColumns;
+    if (Objects.nonNull(generatedBinder)) {
+      binder = generatedBinder;
+      table = generatedBinder.getTableName();
+      boundColumns = generatedBinder.getColumnNames();
+    } else {
+      binder = (preparedStatement, value) -> placeholderSetter.setPlaceholder(preparedStatement, this, value);
+      table = Objects.isNull(tableName) ? null : tableName.name();
+      boundColumns = columnNames;
+    }
+
+    keyColumns = Collections.unmodifiableList(findKeyColumns(boundColumns, fields));
+    insertQuery = Objects.isNull(table) ? null : createInsertQuery(table, boundColumns);
+    upsertQuery = Objects.isNull(table) || keyColumns.isEmpty() ? null : createUpsertQuery(table, boundColumns, keyColumns);
+  }
+
+  /**
+   * Liefert die Spalten, deren Feld mit {@link Key} annotiert ist, in
+   * Insert-Reihenfolge.
+   */
+  private List<String> findKeyColumns(List<String> columns, Map<String, Field> fieldByColumn) {
+    List<String> keys = new ArrayList<>();
+    for (String column : columns) {
+      Field field = fieldByColumn.get(column);
+      if (Objects.nonNull(field) && Objects.nonNull(reflection.getFieldAnnotation(field, Key.class))) {
+        keys.add(column);
+      }
+    }
+    return keys;
+  }
+
+  private List<ColumnCodec> createColumnCodecs(List<String> columns, Map<String, Field> fieldByColumn) {
+    List<ColumnCodec> codecs = new ArrayList<>(columns.size());
+    for (String column : columns) {
+      Field field = fieldByColumn.get(column);
+      codecs.add(Objects.isNull(field) ? null : typeMapper.getCodec(field.getType()));
+    }
+    return codecs;
+  }
+
+  /**
+   * Sucht den von {@link EntityMapperProcessor} generierten RowMapper.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private Supplier<RowMapper<T>> findGeneratedRowMapper(Class<T> clazz) {
+    Class<?> mapperClass = findGeneratedClass(clazz, EntityMapperProcessor.ROW_MAPPER_SUFFIX);
+    if (Objects.isNull(mapperClass) || !RowMapper.class.isAssignableFrom(mapperClass)) {
+      return null;
+    }
+    return (Supplier) accessorFactory.createConstructor(mapperClass);
+  }
+
+  /**
+   * Sucht den von {@link EntityMapperProcessor} generierten Binder.
+   */
+  @SuppressWarnings("unchecked")
+  private EntityBinder<T> findGeneratedBinder(Class<T> clazz) {
+    Class<?> binderClass = findGeneratedClass(clazz, EntityMapperProcessor.BINDER_SUFFIX);
+    if (Objects.isNull(binderClass) || !EntityBinder.class.isAssignableFrom(binderClass)) {
+      return null;
+    }
+    return (EntityBinder<T>) accessorFactory.createConstructor(binderClass).get();
+  }
+
+  private Class<?> findGeneratedClass(Class<T> clazz, String suffix) {
+    String className = clazz.getName().replace('$', '_') + suffix;
+    try {
+      Class<?> generated = Class.forName(className, true, clazz.getClassLoader());
+      logger.log(Level.FINE, "Generierte Klasse {0} wird verwendet.", className);
+      return generated;
+    } catch (ClassNotFoundException | LinkageError ex) {
+      return null;
+    }
+  }
+
+  private Map<String, BiConsumer<Object, Object>> createSetters(Map<String, Method> methods) {
+    Map<Method, BiConsumer<Object, Object>> created = new HashMap<>();
+    Map<String, BiConsumer<Object, Object>> setterByColumn = new HashMap<>();
+    methods.forEach((column, method) -> {
+      if (Objects.nonNull(method)) {
+        setterByColumn.put(column, created.computeIfAbsent(method, accessorFactory::createSetter));
+      }
+    });
+    return setterByColumn;
+  }
+
+  private List<Function<Object, Object>> createColumnGetters(List<String> columns, Map<String, Field> fieldByColumn) {
+    List<Function<Object, Object>> getters = new ArrayList<>(columns.size());
+    for (String column : columns) {
+      Field field = fieldByColumn.get(column);
+      getters.add(Objects.isNull(field) ? null : accessorFactory.createGetter(field));
+    }
+    return getters;
+  }
+
+  /**
+   * Liefert alle Setter-Methode, erweitert mit Alias aus der {@link Column}
+   * Annotation.
+   */
+  private Map<String, Method> mapSetterByColumnname(Class<T> clazz) {
+    Map<String, Method> methods = reflection.getSetterMethods(clazz);
+    Map<String, Column> annotatedFields = reflection.getAnnotatedFields(clazz, Column.class);
+
+    Map<String, Method> setters = new HashMap<>(methods);
+    annotatedFields.forEach((fieldName, column) -> setters.put(column.name(), methods.get(fieldName)));
+    return setters;
+  }
+
+  /**
+   * Liefert die Parameter-Position pro Spaltenname, Key ist Feldername in
+   * Uppercase und {@link Column} Alias.
+   */
+  private Map<String, Integer> mapParameterByColumnname(List<Field> canonicalFields) {
+    Map<String, Integer> parameters = new HashMap<>();
+    for (int position = 0; position < canonicalFields.size(); position++) {
+      Field field = canonicalFields.get(position);
+      parameters.put(field.getName().toUpperCase(), position);
+      Column column = reflection.getFieldAnnotation(field, Column.class);
+      if (Objects.nonNull(column)) {
+        parameters.put(column.name(), position);
+      }
+    }
+    return parameters;
+  }
+
+  private String createInsertQuery(String table, List<String> columns) {
+    StringJoiner columnJoiner = new StringJoiner(",", "(", ")");
+    StringJoiner platzHalterJoiner = new StringJoiner(",", "(", ")");
+    columns.forEach(columnname -> {
+      columnJoiner.add(columnname);
+      platzHalterJoiner.add("?");
+    });
+
+    StringJoiner query = new StringJoiner(" ");
+    query.add("INSERT INTO");
+    query.add(table);
+    query.add(columnJoiner.toString());
+    query.add("VALUES");
+    query.add(platzHalterJoiner.toString());
+
+    return query.toString();
+  }
+
+  /**
+   * Erzeugt ein MERGE-Query, dessen Platzhalter in derselben Reihenfolge wie
+   * beim Insert-Query stehen, damit derselbe Binder verwendet werden kann:
+   *
+   * <pre>
+   * MERGE INTO table t USING (SELECT ? AS A, ? AS B FROM dual) s ON (t.A = s.A)
+   * WHEN MATCHED THEN UPDATE SET t.B = s.B
+   * WHEN NOT MATCHED THEN INSERT (A,B) VALUES (s.A,s.B)
+   * </pre>
+   *
+   * Schl&uuml;sselspalten werden nicht aktualisiert. Besteht die Entity nur aus
+   * Schl&uuml;sselspalten, entf&auml;llt der UPDATE-Teil.
+   */
+  private String createUpsertQuery(String table, List<String> columns, List<String> keys) {
+    StringJoiner sourceJoiner = new StringJoiner(", ", "(SELECT ", " FROM dual)");
+    StringJoiner onJoiner = new StringJoiner(" AND ", "(", ")");
+    StringJoiner updateJoiner = new StringJoiner(", ");
+    StringJoiner columnJoiner = new StringJoiner(",", "(", ")");
+    StringJoiner valueJoiner = new StringJoiner(",", "(", ")");
+    columns.forEach(columnname -> {
+      sourceJoiner.add("? AS " + columnname);
+      columnJoiner.add(columnname);
+      valueJoiner.add("s." + columnname);
+      if (keys.contains(columnname)) {
+        onJoiner.add("t." + columnname + " = s." + columnname);
+      } else {
+        updateJoiner.add("t." + columnname + " = s." + columnname);
+      }
+    });
+
+    StringJoiner query = new StringJoiner(" ");
+    query.add("MERGE INTO");
+    query.add(table);
+    query.add("t USING");
+    query.add(sourceJoiner.toString());
+    query.add("s ON");
+    query.add(onJoiner.toString());
+    if (updateJoiner.length() > 0) {
+      query.add("WHEN MATCHED THEN UPDATE SET");
+      query.add(updateJoiner.toString());
+    }
+    query.add("WHEN NOT MATCHED THEN INSERT");
+    query.add(columnJoiner.toString());
+    query.add("VALUES");
+    query.add(valueJoiner.toString());
+
+    return query.toString();
+  }
+
+  public Class<T> getEntity() {
+    return entity;
+  }
+
+  public boolean isEnum() {
+    return isEnum;
+  }
+
+  public boolean isPrimitive() {
+    return isPrimitive;
+  }
+
+  /**
+   * @return die {@link TableName} Annotation oder <code>null</code>, falls
+   *         die Klasse nicht annotiert ist.
+   */
+  public TableName getTableName() {
+    return tableName;
+  }
+
+  /**
+   * @return Spaltennamen (mit {@link Column} Alias) in Insert-Reihenfolge.
+   */
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  /**
+   * @return Felder, Key ist Feldername in Uppercase und {@link Column} Alias.
+   */
+  public Map<String, Field> getFields() {
+    return fields;
+  }
+
+  /**
+   * @return <code>true</code>, wenn ein Feld ein {@link java.io.InputStream}
+   *         oder {@link java.io.Reader} ist. Solche Werte lassen sich nur
+   *         einmal lesen bzw. binden.
+   */
+  public boolean hasStreamColumns() {
+    return fields.values().stream().map(Field::getType).anyMatch(LobSupport::isStreamType);
+  }
+
+  /**
+   * @return Setter-Methode, Key ist Feldername in Uppercase und {@link Column}
+   *         Alias.
+   */
+  public Map<String, Method> getSetterMethods() {
+    return setterMethods;
+  }
+
+  /**
+   * @return Funktion, die mit dem Default-Konstruktor ein neues Objekt erzeugt,
+   *         oder <code>null</code>, falls es keinen gibt.
+   */
+  public Supplier<T> getConstructor() {
+    return constructor;
+  }
+
+  /**
+   * @return <code>true</code>, wenn die Entity keinen Default-Konstruktor hat
+   *         und &uuml;ber den kanonischen Konstruktor erzeugt wird (z.B. ein
+   *         Record oder eine unver&auml;nderliche Klasse).
+   */
+  public boolean isConstructorMapped() {
+    return Objects.nonNull(canonicalConstructor);
+  }
+
+  /**
+   * @return Funktion, die mit dem kanonischen Konstruktor ein neues Objekt
+   *         erzeugt, oder <code>null</code>, falls es keinen gibt.
+   */
+  public Function<Object[], T> getCanonicalConstructor() {
+    return canonicalConstructor;
+  }
+
+  /**
+   * @return Parameter-Position im kanonischen Konstruktor, Key wie bei
+   *         {@link #getFields()}.
+   */
+  public Map<String, Integer> getConstructorParameters() {
+    return constructorParameters;
+  }
+
+  /**
+   * @return Parameter-Typen des kanonischen Konstruktors.
+   */
+  public List<Class<?>> getConstructorParameterTypes() {
+    return constructorParameterTypes;
+  }
+
+  /**
+   * @return Setter-Funktionen, Key wie bei {@link #getSetterMethods()}.
+   */
+  public Map<String, BiConsumer<Object, Object>> getSetters() {
+    return setters;
+  }
+
+  /**
+   * @return Getter-Funktionen in derselben Reihenfolge wie
+   *         {@link #getColumnNames()}.
+   */
+  public List<Function<Object, Object>> getColumnGetters() {
+    return columnGetters;
+  }
+
+  /**
+   * @return {@link ColumnCodec} pro Spalte in derselben Reihenfolge wie
+   *         {@link #getColumnNames()}, <code>null</code> f&uuml;r einen
+   *         Feldtyp ohne Codec.
+   */
+  public List<ColumnCodec> getColumnCodecs() {
+    return columnCodecs;
+  }
+
+  /**
+   * @return <code>true</code>, wenn ein generierter {@link RowMapper}
+   *         vorhanden ist.
+   */
+  public boolean hasGeneratedRowMapper() {
+    return Objects.nonNull(generatedRowMapper);
+  }
+
+  /**
+   * @return neue Instanz des generierten {@link RowMapper}, oder
+   *         <code>null</code>, falls keiner generiert wurde.
+   */
+  public RowMapper<T> newGeneratedRowMapper() {
+    return Objects.isNull(generatedRowMapper) ? null : generatedRowMapper.get();
+  }
+
+  /**
+   * @return Binder passend zu {@link #getInsertQuery()}: der generierte
+   *         {@link EntityBinder}, falls vorhanden, sonst ein Binder &uuml;ber
+   *         {@link #getColumnGetters()}.
+   */
+  public ParameterBinder<T> getBinder() {
+    return binder;
+  }
+
+  /**
+   * @return generierte Insert-Query oder <code>null</code>, falls die Klasse
+   *         nicht mit {@link TableName} annotiert ist.
+   */
+  public String getInsertQuery() {
+    return insertQuery;
+  }
+
+  /**
+   * @return Spalten mit {@link Key} Annotation in Insert-Reihenfolge.
+   */
+  public List<String> getKeyColumns() {
+    return keyColumns;
+  }
+
+  /**
+   * @return generiertes MERGE-Query f&uuml;r Upserts, gebunden mit
+   *         {@link #getBinder()}, oder <code>null</code>, falls die Klasse
+   *         nicht mit {@link TableName} annotiert ist oder kein Feld mit
+   *         {@link Key} hat.
+   */
+  public String getUpsertQuery() {
+    return upsertQuery;
+  }
+}
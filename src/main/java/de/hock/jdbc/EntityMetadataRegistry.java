@@ -0,0 +1,83 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prozessweite, thread-sichere Registry f&uuml;r {@link EntityMetadata}. Die
+ * Reflection einer Entity-Klasse wird nur beim ersten Zugriff durchgef&uuml;hrt,
+ * jeder weitere Zugriff liefert die gespeicherten Metadaten.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public final class EntityMetadataRegistry {
+
+  private static final EntityMetadataRegistry INSTANCE = new EntityMetadataRegistry();
+
+  private final Map<Class<?>, EntityMetadata<?>> metadataCache = new ConcurrentHashMap<>();
+  private final AtomicLong hitCounter = new AtomicLong();
+  private final AtomicLong missCounter = new AtomicLong();
+
+  private EntityMetadataRegistry() {
+  }
+
+  public static EntityMetadataRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Liefert die Metadaten der angegebenen Klasse. Beim ersten Zugriff werden
+   * sie erzeugt und gespeichert.
+   *
+   * @param entity
+   *          ein Class-Typ
+   * @return {@link EntityMetadata} der Klasse
+   */
+  @SuppressWarnings("unchecked")
+  public <T> EntityMetadata<T> getMetadata(Class<T> entity) {
+    EntityMetadata<?> metadata = metadataCache.get(entity);
+
+    if (Objects.isNull(metadata)) {
+      metadata = metadataCache.computeIfAbsent(entity, key -> {
+        missCounter.incrementAndGet();
+        return new EntityMetadata<>(key);
+      });
+    } else {
+      hitCounter.incrementAndGet();
+    }
+
+    return (EntityMetadata<T>) metadata;
+  }
+
+  public long getHitCount() {
+    return hitCounter.get();
+  }
+
+  public long getMissCount() {
+    return missCounter.get();
+  }
+
+  public int size() {
+    return metadataCache.size();
+  }
+
+  /**
+   * Entfernt alle gespeicherten Metadaten und setzt die Z&auml;hler
+   * zur&uuml;ck.
+   */
+  public void clear() {
+    metadataCache.clear();
+    hitCounter.set(0);
+    missCounter.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("EntityMetadataRegistry [size=%d, hits=%d, misses=%d]", size(), getHitCount(), getMissCount());
+  }
+}
@@ -1,10 +1,14 @@
 package de.hock.jdbc;
 
+import java.beans.ConstructorProperties;
 import java.beans.Transient;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -81,7 +85,18 @@ public class EntityReflection {
    * @return eine Liste mit Columnnamen alias
    */
   public <T> List<String> getColumnNameAlias(T typedObject) {
-    Map<String, Field> fields = getDeclaredFields(typedObject.getClass());
+    return getColumnNameAlias(typedObject.getClass());
+  }
+
+  /**
+   * Wie {@link #getColumnNameAlias(Object)}, aber direkt aus dem Class-Typ.
+   *
+   * @param clazz
+   *          ein Class-Typ
+   * @return eine Liste mit Columnnamen alias
+   */
+  public <T> List<String> getColumnNameAlias(Class<T> clazz) {
+    Map<String, Field> fields = getDeclaredFields(clazz);
     return fields.entrySet().stream().map(mapFieldByAliasName).collect(Collectors.toList());
   }
 
@@ -202,6 +217,132 @@ public class EntityReflection {
     return setterMethode;
   }
 
+  /**
+   * Diese Hilfemethode bestimmt, ob der Class-Typ ein Java Record ist. Die
+   * Pr&uuml;fung l&auml;uft &uuml;ber den Namen der Superklasse, damit sie auch
+   * mit Java 8 kompiliert.
+   *
+   * @param clazz
+   *          ein Class-Typ
+   * @return <code>true</code> wenn der Class-Typ ein Record ist, sonst
+   *         <code>false</code>.
+   */
+  public <T> boolean isRecord(Class<T> clazz) {
+    Class<?> superclass = clazz.getSuperclass();
+    return Objects.nonNull(superclass) && "java.lang.Record".equals(superclass.getName());
+  }
+
+  /**
+   * Liefert die Felder, die der kanonische Konstruktor in dieser Reihenfolge
+   * erwartet. Bei einem Record sind das die Record-Komponenten.
+   *
+   * Bei anderen Klassen ist die Reihenfolge der Felder nicht festgelegt, die
+   * Parameter werden deshalb &uuml;ber ihren Namen zugeordnet: aus
+   * {@link ConstructorProperties} oder, mit <code>-parameters</code>
+   * &uuml;bersetzt, aus {@link Parameter#getName()}. Es wird ein Konstruktor
+   * gesucht, der jedes nicht statische und nicht transiente Feld mit
+   * gleichem Namen und Typ als Parameter hat.
+   *
+   * @param clazz
+   *          ein Class-Typ
+   * @return Liste der Felder in Parameter-Reihenfolge, leer, wenn es keinen
+   *         solchen Konstruktor gibt
+   */
+  public <T> List<Field> getCanonicalFields(Class<T> clazz) {
+    List<Field> canonicalFields = new ArrayList<>();
+
+    if (isRecord(clazz)) {
+      try {
+        Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(clazz);
+        for (Object component : components) {
+          String name = (String) component.getClass().getMethod("getName").invoke(component);
+          canonicalFields.add(clazz.getDeclaredField(name));
+        }
+      } catch (ReflectiveOperationException ex) {
+        throw new IllegalArgumentException(String.format("Record-Komponenten von %s können nicht gelesen werden", clazz.getName()), ex);
+      }
+      return canonicalFields;
+    }
+
+    Map<String, Field> fieldsByName = new HashMap<>();
+    for (Field field : clazz.getDeclaredFields()) {
+      int modifiers = field.getModifiers();
+      if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || Objects.nonNull(field.getAnnotation(Transient.class))
+          || field.isSynthetic()) {
+        continue;
+      }
+      fieldsByName.put(field.getName(), field);
+    }
+
+    for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+      String[] parameterNames = getParameterNames(constructor);
+      if (Objects.isNull(parameterNames) || parameterNames.length == 0 || parameterNames.length != fieldsByName.size()) {
+        continue;
+      }
+
+      canonicalFields.clear();
+      Class<?>[] parameterTypes = constructor.getParameterTypes();
+      for (int index = 0; index < parameterNames.length; index++) {
+        Field field = fieldsByName.get(parameterNames[index]);
+        if (Objects.isNull(field) || !field.getType().equals(parameterTypes[index])) {
+          break;
+        }
+        canonicalFields.add(field);
+      }
+      if (canonicalFields.size() == parameterNames.length) {
+        return canonicalFields;
+      }
+    }
+
+    canonicalFields.clear();
+    return canonicalFields;
+  }
+
+  /**
+   * @return die Parameternamen aus {@link ConstructorProperties} oder aus den
+   *         Class-Dateien, <code>null</code>, wenn sie nicht bekannt sind.
+   */
+  private static String[] getParameterNames(Constructor<?> constructor) {
+    ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+    if (Objects.nonNull(properties)) {
+      return properties.value().length == constructor.getParameterCount() ? properties.value() : null;
+    }
+
+    Parameter[] parameters = constructor.getParameters();
+    String[] parameterNames = new String[parameters.length];
+    for (int index = 0; index < parameters.length; index++) {
+      if (!parameters[index].isNamePresent()) {
+        return null;
+      }
+      parameterNames[index] = parameters[index].getName();
+    }
+    return parameterNames;
+  }
+
+  /**
+   * Liefert den kanonischen Konstruktor, dessen Parameter-Typen genau den
+   * Feldern aus {@link #getCanonicalFields(Class)} entsprechen.
+   *
+   * @param clazz
+   *          ein Class-Typ
+   * @param canonicalFields
+   *          Felder in Parameter-Reihenfolge
+   * @return kanonischer Konstruktor oder <code>null</code>, falls es keinen
+   *         gibt.
+   */
+  public <T> Constructor<T> getCanonicalConstructor(Class<T> clazz, List<Field> canonicalFields) {
+    if (canonicalFields.isEmpty()) {
+      return null;
+    }
+
+    Class<?>[] parameterTypes = canonicalFields.stream().map(Field::getType).toArray(Class<?>[]::new);
+    try {
+      return clazz.getDeclaredConstructor(parameterTypes);
+    } catch (NoSuchMethodException ex) {
+      return null;
+    }
+  }
+
   /**
    * Diese Hilfemethode bestimmt, ob der Class-Typ Enum ist oder nicht.
    *
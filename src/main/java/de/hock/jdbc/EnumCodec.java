@@ -0,0 +1,180 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ColumnCodec} f&uuml;r eine Enum-Klasse. Die Zuordnung String -&gt;
+ * Konstante wird einmal pro Enum-Klasse aufgebaut:
+ * <ul>
+ * <li>der Name jeder Konstante (wie {@link Enum#valueOf(Class, String)}),</li>
+ * <li>der Wert von <code>value()</code>, falls die Enum eine solche Methode
+ * hat (z.B. JAXB-generierte Enums mit <code>fromValue</code>).</li>
+ * </ul>
+ * Andere Werte werden einmal &uuml;ber <code>fromValue</code> aufgel&ouml;st
+ * und das Ergebnis gespeichert. Beim Schreiben wird <code>toString()</code>
+ * pro Konstante vorher berechnet.
+ *
+ * Pro Enum-Klasse gibt es einen Codec ({@link #of(Class)}), den
+ * {@link SQLTypeMapper} und die generierten Mapper &uuml;ber
+ * {@link MapperSupport} gemeinsam benutzen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+final class EnumCodec implements ColumnCodec {
+
+  private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+  private static final Map<Class<?>, EnumCodec> codecsByType = new ConcurrentHashMap<>();
+
+  private final Class<?> enumType;
+  private final Map<String, Object> constants;
+  private final Map<String, Object> resolvedValues = new ConcurrentHashMap<>();
+  private final String[] encodedValues;
+  private final MethodHandle fromValue;
+
+  /**
+   * @return der Codec f&uuml;r die Enum-Klasse, einmal pro Klasse aufgebaut
+   */
+  static EnumCodec of(Class<?> enumType) {
+    return codecsByType.computeIfAbsent(enumType, EnumCodec::new);
+  }
+
+  private EnumCodec(Class<?> enumType) {
+    this.enumType = enumType;
+
+    Object[] enumConstants = enumType.getEnumConstants();
+    Map<String, Object> constantByValue = new HashMap<>();
+    encodedValues = new String[enumConstants.length];
+    for (Object constant : enumConstants) {
+      Enum<?> enumConstant = (Enum<?>) constant;
+      encodedValues[enumConstant.ordinal()] = enumConstant.toString();
+      constantByValue.put(enumConstant.name(), constant);
+    }
+
+    MethodHandle valueGetter = findMethod(enumType, "value", false);
+    if (Objects.nonNull(valueGetter)) {
+      for (Object constant : enumConstants) {
+        Object value = invoke(valueGetter, constant);
+        if (Objects.nonNull(value)) {
+          constantByValue.putIfAbsent(value.toString(), constant);
+        }
+      }
+    }
+
+    constants = Collections.unmodifiableMap(constantByValue);
+    fromValue = findMethod(enumType, "fromValue", true);
+  }
+
+  /**
+   * Liefert die Enum-Konstante zum angegebenen Wert.
+   *
+   * @param value
+   *          ein Wert aus der Datenbank
+   * @return die Enum-Konstante oder <code>null</code>, wenn <code>value</code>
+   *         null ist.
+   * @throws IllegalArgumentException
+   *           falls der Wert weder ein Name noch &uuml;ber
+   *           <code>fromValue</code> aufl&ouml;sbar ist.
+   */
+  Object decode(String value) {
+    if (Objects.isNull(value)) {
+      return null;
+    }
+
+    Object constant = constants.get(value);
+    if (Objects.isNull(constant)) {
+      constant = resolvedValues.get(value);
+    }
+    if (Objects.isNull(constant)) {
+      constant = resolveFromValue(value);
+    }
+
+    return constant;
+  }
+
+  /**
+   * @return der Wert, der f&uuml;r die Enum-Konstante in die Datenbank
+   *         geschrieben wird.
+   */
+  String encode(Object constant) {
+    return encodedValues[((Enum<?>) constant).ordinal()];
+  }
+
+  @Override
+  public Object read(ResultSet resultSet, int index) throws SQLException {
+    return decode(resultSet.getString(index));
+  }
+
+  @Override
+  public void write(PreparedStatement preparedStatement, int index, Object value) throws SQLException {
+    if (Objects.isNull(value)) {
+      preparedStatement.setNull(index, JDBCType.NULL.getVendorTypeNumber());
+    } else {
+      preparedStatement.setString(index, encode(value));
+    }
+  }
+
+  private Object resolveFromValue(String value) {
+    if (Objects.isNull(fromValue)) {
+      throw new IllegalArgumentException(MessageFormat.format("Neither Enum#valueof() nor T#fromValue() is present for {0}: {1}", enumType.getName(), value));
+    }
+
+    Object constant = invoke(fromValue, value);
+    if (Objects.nonNull(constant)) {
+      resolvedValues.put(value, constant);
+    }
+    return constant;
+  }
+
+  /**
+   * Sucht eine Methode mit dem angegebenen Namen: statisch mit einem
+   * String-Parameter (<code>fromValue</code>) oder nicht statisch ohne
+   * Parameter (<code>value</code>).
+   */
+  private static MethodHandle findMethod(Class<?> enumType, String name, boolean isStatic) {
+    for (Method method : enumType.getDeclaredMethods()) {
+      if (!name.equals(method.getName()) || Modifier.isStatic(method.getModifiers()) != isStatic) {
+        continue;
+      }
+      boolean matches = isStatic ? method.getParameterCount() == 1 && method.getParameterTypes()[0].isAssignableFrom(String.class)
+          : method.getParameterCount() == 0 && !void.class.equals(method.getReturnType());
+      if (matches) {
+        method.setAccessible(true);
+        try {
+          MethodType type = isStatic ? MethodType.methodType(Object.class, String.class) : MethodType.methodType(Object.class, Object.class);
+          return lookup.unreflect(method).asType(type);
+        } catch (IllegalAccessException ex) {
+          throw new IllegalArgumentException(ex);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static Object invoke(MethodHandle handle, Object argument) {
+    try {
+      return handle.invoke(argument);
+    } catch (RuntimeException | Error ex) {
+      throw ex;
+    } catch (Throwable ex) {
+      throw new IllegalArgumentException(ex);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Passt die Fetch-Size eines {@link ResultSet} w&auml;hrend des Lesens an.
+ *
+ * Gestartet wird mit {@link #INITIAL_FETCH_SIZE} Zeilen. Nach jeweils
+ * <code>fetchSize</code> gelesenen Zeilen (etwa einem Roundtrip) wird
+ * gemessen, welcher Anteil der Zeit in {@link ResultSet#next()}, also beim
+ * Warten auf die Datenbank, verbracht wurde. Liegt der Anteil &uuml;ber
+ * {@link #WAIT_RATIO}, verbraucht der Leser die Zeilen schneller als sie
+ * geliefert werden, und die Fetch-Size wird um {@link #GROWTH} vergr&ouml;&szlig;ert.
+ * Die Obergrenze ist immer <code>byteBudget</code> geteilt durch die
+ * gesch&auml;tzte Zeilenbreite, die aus der ersten Zeile jedes Fensters
+ * gesch&auml;tzt wird.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+final class FetchSizeAdvisor {
+
+  private static final Logger logger = Logger.getLogger(FetchSizeAdvisor.class.getSimpleName());
+
+  /** Fetch-Size zu Beginn, wie der Default des Oracle-Treibers. */
+  static final int INITIAL_FETCH_SIZE = 10;
+
+  /** Faktor, um den die Fetch-Size pro Schritt w&auml;chst. */
+  static final int GROWTH = 2;
+
+  /** Anteil Wartezeit auf die Datenbank, ab dem vergr&ouml;&szlig;ert wird. */
+  static final double WAIT_RATIO = 0.1;
+
+  /** Gesch&auml;tzte Bytes pro Spalte ohne Wert (Verwaltung, Null-Indikator). */
+  private static final int COLUMN_OVERHEAD = 16;
+
+  /** Gesch&auml;tzte Bytes f&uuml;r einen LOB-Locator bzw. LONG-Wert. */
+  private static final int LOB_BYTES = 4000;
+
+  private final long byteBudget;
+
+  private int fetchSize = INITIAL_FETCH_SIZE;
+  private int[] columnTypes;
+  private long rowBytes = 1;
+
+  private int windowRows;
+  private long windowStart;
+  private long waitNanos;
+
+  /**
+   * @param byteBudget
+   *          maximale Bytes pro Fetch
+   */
+  FetchSizeAdvisor(long byteBudget) {
+    if (byteBudget < 1) {
+      throw new IllegalArgumentException(String.format("Ungültiges Fetch-Budget %d", byteBudget));
+    }
+    this.byteBudget = byteBudget;
+  }
+
+  int getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * Ruft {@link ResultSet#next()} auf, misst die Wartezeit und passt die
+   * Fetch-Size am Ende jedes Fensters an.
+   */
+  boolean next(ResultSet resultSet) throws SQLException {
+    long start = System.nanoTime();
+    if (windowStart == 0) {
+      windowStart = start;
+    }
+    boolean hasRow = resultSet.next();
+    long end = System.nanoTime();
+    waitNanos += end - start;
+    if (!hasRow) {
+      return false;
+    }
+
+    if (windowRows == 0) {
+      rowBytes = estimateRowBytes(resultSet);
+    }
+    if (++windowRows >= fetchSize) {
+      adjust(resultSet, end);
+    }
+    return true;
+  }
+
+  private void adjust(ResultSet resultSet, long now) throws SQLException {
+    double waitRatio = (double) waitNanos / Math.max(1L, now - windowStart);
+    long limit = Math.max(1L, byteBudget / rowBytes);
+    long next = waitRatio >= WAIT_RATIO ? (long) fetchSize * GROWTH : fetchSize;
+    next = Math.min(Math.min(next, limit), Integer.MAX_VALUE);
+
+    if (next != fetchSize) {
+      logger.log(Level.FINE, "Fetch-Size {0} -> {1} (Zeilenbreite {2} Bytes, Wartezeit {3}%)",
+          new Object[] { fetchSize, next, rowBytes, Math.round(waitRatio * 100) });
+      fetchSize = (int) next;
+      resultSet.setFetchSize(fetchSize);
+    }
+
+    windowRows = 0;
+    waitNanos = 0;
+    windowStart = now;
+  }
+
+  /**
+   * Sch&auml;tzt die Breite der aktuellen Zeile. LOB- und LONG-Spalten werden
+   * nicht gelesen, da sie nur einmal gelesen werden k&ouml;nnen.
+   */
+  private long estimateRowBytes(ResultSet resultSet) throws SQLException {
+    if (columnTypes == null) {
+      ResultSetMetaData metaData = resultSet.getMetaData();
+      columnTypes = new int[metaData.getColumnCount()];
+      for (int index = 0; index < columnTypes.length; index++) {
+        columnTypes[index] = metaData.getColumnType(index + 1);
+      }
+    }
+
+    long bytes = 0;
+    for (int index = 0; index < columnTypes.length; index++) {
+      bytes += COLUMN_OVERHEAD + estimateColumnBytes(resultSet, index + 1, columnTypes[index]);
+    }
+    return Math.max(1L, bytes);
+  }
+
+  private static long estimateColumnBytes(ResultSet resultSet, int column, int sqlType) throws SQLException {
+    switch (sqlType) {
+    case Types.BLOB:
+    case Types.CLOB:
+    case Types.NCLOB:
+    case Types.LONGVARCHAR:
+    case Types.LONGNVARCHAR:
+    case Types.LONGVARBINARY:
+      return LOB_BYTES;
+    case Types.CHAR:
+    case Types.VARCHAR:
+    case Types.NCHAR:
+    case Types.NVARCHAR:
+      String text = resultSet.getString(column);
+      return text == null ? 0 : 2L * text.length();
+    case Types.BINARY:
+    case Types.VARBINARY:
+      byte[] binary = resultSet.getBytes(column);
+      return binary == null ? 0 : binary.length;
+    default:
+      return 22;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("FetchSizeAdvisor [fetchSize=%d, rowBytes=%d, byteBudget=%d]", fetchSize, rowBytes, byteBudget);
+  }
+}
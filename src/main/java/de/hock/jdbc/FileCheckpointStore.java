@@ -0,0 +1,110 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link CheckpointStore} mit einer Properties-Datei pro Load-Id im
+ * angegebenen Verzeichnis. Die Datei wird &uuml;ber eine tempor&auml;re Datei
+ * und einen atomaren Move geschrieben, so dass nach einem Absturz immer ein
+ * vollst&auml;ndiger Checkpoint vorliegt.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+  private static final Logger logger = Logger.getLogger(FileCheckpointStore.class.getSimpleName());
+
+  private static final String FILE_SUFFIX = ".checkpoint";
+  private static final String OFFSET_KEY = "offset";
+  private static final String UPDATED_KEY = "updated";
+
+  private final Path directory;
+
+  /**
+   * @param directory
+   *          Verzeichnis f&uuml;r die Checkpoint-Dateien, wird bei Bedarf
+   *          angelegt.
+   */
+  public FileCheckpointStore(Path directory) {
+    this.directory = directory;
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException ex) {
+      throw new RuntimeException(String.format("Could not create checkpoint directory (%s)", directory), ex);
+    }
+  }
+
+  @Override
+  public synchronized long getCommittedOffset(String loadId) {
+    return Long.parseLong(read(loadId).getProperty(OFFSET_KEY, "0"));
+  }
+
+  @Override
+  public synchronized void saveCommittedOffset(String loadId, long offset) {
+    write(loadId, offset);
+  }
+
+  @Override
+  public synchronized void clear(String loadId) {
+    try {
+      Files.deleteIfExists(getFile(loadId));
+    } catch (IOException ex) {
+      throw new RuntimeException(String.format("Could not delete checkpoint of %s", loadId), ex);
+    }
+  }
+
+  private Properties read(String loadId) {
+    Properties checkpoint = new Properties();
+    Path file = getFile(loadId);
+    if (Files.exists(file)) {
+      try (InputStream input = Files.newInputStream(file)) {
+        checkpoint.load(input);
+      } catch (IOException ex) {
+        throw new RuntimeException(String.format("Could not read checkpoint (%s)", file), ex);
+      }
+    }
+    return checkpoint;
+  }
+
+  private void write(String loadId, long offset) {
+    Properties checkpoint = new Properties();
+    checkpoint.setProperty(OFFSET_KEY, Long.toString(offset));
+    checkpoint.setProperty(UPDATED_KEY, Instant.now().toString());
+
+    Path file = getFile(loadId);
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      try (OutputStream output = Files.newOutputStream(temporary)) {
+        checkpoint.store(output, loadId);
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      throw new RuntimeException(String.format("Could not write checkpoint (%s)", file), ex);
+    }
+    logger.log(Level.FINEST, "Checkpoint {0}: offset={1}", new Object[] { loadId, offset });
+  }
+
+  /**
+   * Die Load-Id wird auf Zeichen reduziert, die in Dateinamen erlaubt sind.
+   */
+  private Path getFile(String loadId) {
+    return directory.resolve(loadId.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_SUFFIX);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("FileCheckpointStore [directory=%s]", directory);
+  }
+}
@@ -0,0 +1,49 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * {@link RejectSink}, der jede abgewiesene Zeile als tab-getrennte Zeile an
+ * eine Datei anh&auml;ngt: Zeitpunkt, Fehlercode, Meldung, Zeile und Query.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class FileRejectSink implements RejectSink {
+
+  private final Path file;
+
+  public FileRejectSink(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public synchronized void reject(String query, Object row, SQLException cause) {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      writer.write(String.join("\t", Instant.now().toString(), Integer.toString(cause.getErrorCode()), singleLine(cause.getMessage()),
+          singleLine(Objects.toString(row)), singleLine(query)));
+      writer.newLine();
+    } catch (IOException ex) {
+      throw new RuntimeException(String.format("Could not write reject file (%s)", file), ex);
+    }
+  }
+
+  private static String singleLine(String value) {
+    return Objects.toString(value, "").replaceAll("[\t\r\n]+", " ");
+  }
+
+  @Override
+  public String toString() {
+    return String.format("FileRejectSink [file=%s]", file);
+  }
+}
@@ -0,0 +1,23 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Markiert ein Feld als Schl&uuml;sselspalte. Die Schl&uuml;sselspalten bilden
+ * die ON-Bedingung des generierten MERGE-Queries f&uuml;r
+ * {@link DatabaseOperation#batchUpsert(java.util.List)}.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+@Retention(RUNTIME)
+@Target({ FIELD })
+public @interface Key {
+
+}
@@ -0,0 +1,199 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Position einer Keyset-Paginierung: die Schl&uuml;sselspalten und die
+ * Schl&uuml;sselwerte der letzten gelesenen Zeile. Als Token
+ * ({@link #toToken()}) kann die Position gespeichert und ein abgebrochenes
+ * Lesen mit {@link #fromToken(String)} fortgesetzt werden.
+ *
+ * Das Token kommt vom Aufrufer und wird deshalb nicht per Java-Serialisierung,
+ * sondern mit einer eigenen Kodierung geschrieben: pro Spalte der Name und der
+ * Wert mit einem Typ-Kennzeichen ({@link #STRING}, {@link #NUMBER},
+ * {@link #BOOLEAN}, {@link #DATE}, {@link #TIMESTAMP}). Unbekannte Kennzeichen
+ * werden abgelehnt.
+ *
+ * Die Schl&uuml;sselspalten m&uuml;ssen NOT NULL sein: die Folgeseite wird mit
+ * {@code K > ?} gelesen, und ein NULL-Wert w&uuml;rde dort keine Zeile mehr
+ * treffen und das Lesen still beenden. NULL-Werte werden deshalb schon beim
+ * Aufbau des Cursors abgelehnt. Zahlen werden als
+ * {@link BigDecimal}, Zeitstempel als {@link LocalDateTime} gehalten.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public final class KeysetCursor {
+
+  private static final int VERSION = 1;
+
+  private static final char STRING = 'S';
+  private static final char NUMBER = 'N';
+  private static final char BOOLEAN = 'B';
+  private static final char DATE = 'D';
+  private static final char TIMESTAMP = 'T';
+
+  private final List<String> keyColumns;
+  private final List<Object> keyValues;
+
+  /**
+   * @throws IllegalArgumentException
+   *           wenn Spalten und Werte nicht zusammenpassen oder ein Wert NULL
+   *           ist oder einen nicht unterst&uuml;tzten Typ hat.
+   */
+  KeysetCursor(List<String> keyColumns, List<Object> keyValues) {
+    if (keyColumns.size() != keyValues.size()) {
+      throw new IllegalArgumentException(String.format("Schlüsselspalten %s passen nicht zu den Werten %s", keyColumns, keyValues));
+    }
+    List<Object> values = new ArrayList<>(keyValues.size());
+    for (int index = 0; index < keyValues.size(); index++) {
+      values.add(normalize(keyColumns.get(index), keyValues.get(index)));
+    }
+    this.keyColumns = Collections.unmodifiableList(new ArrayList<>(keyColumns));
+    this.keyValues = Collections.unmodifiableList(values);
+  }
+
+  /**
+   * Bringt einen Schl&uuml;sselwert auf einen der kodierbaren Typen.
+   */
+  private static Object normalize(String column, Object value) {
+    if (value == null) {
+      throw new IllegalArgumentException(String.format("Schlüsselspalte %s ist NULL, Schlüsselspalten müssen NOT NULL sein", column));
+    }
+    if (value instanceof String || value instanceof BigDecimal || value instanceof Boolean || value instanceof LocalDate
+        || value instanceof LocalDateTime) {
+      return value;
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    }
+    if (value instanceof BigInteger) {
+      return new BigDecimal((BigInteger) value);
+    }
+    if (value instanceof Double || value instanceof Float) {
+      return new BigDecimal(value.toString());
+    }
+    if (value instanceof Timestamp) {
+      return ((Timestamp) value).toLocalDateTime();
+    }
+    if (value instanceof Character) {
+      return value.toString();
+    }
+    throw new IllegalArgumentException(String.format("Schlüsselspalte %s hat den nicht unterstützten Typ %s", column, value.getClass().getName()));
+  }
+
+  /**
+   * @return URL-sicheres Base64-Token dieser Position
+   */
+  public String toToken() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(bytes)) {
+      output.writeByte(VERSION);
+      output.writeInt(keyColumns.size());
+      for (int index = 0; index < keyColumns.size(); index++) {
+        output.writeUTF(keyColumns.get(index));
+        writeValue(output, keyValues.get(index));
+      }
+    } catch (IOException ex) {
+      throw new RuntimeException(String.format("Schlüsselwerte %s können nicht kodiert werden.", keyValues), ex);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+  }
+
+  private static void writeValue(DataOutputStream output, Object value) throws IOException {
+    if (value instanceof String) {
+      output.writeChar(STRING);
+      output.writeUTF((String) value);
+    } else if (value instanceof BigDecimal) {
+      output.writeChar(NUMBER);
+      output.writeUTF(((BigDecimal) value).toString());
+    } else if (value instanceof Boolean) {
+      output.writeChar(BOOLEAN);
+      output.writeBoolean((Boolean) value);
+    } else if (value instanceof LocalDate) {
+      output.writeChar(DATE);
+      output.writeUTF(value.toString());
+    } else {
+      output.writeChar(TIMESTAMP);
+      output.writeUTF(value.toString());
+    }
+  }
+
+  /**
+   * @param token
+   *          ein mit {@link #toToken()} erzeugtes Token
+   * @return die Position
+   * @throws IllegalArgumentException
+   *           bei einem ung&uuml;ltigen Token
+   */
+  public static KeysetCursor fromToken(String token) {
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+      if (input.readUnsignedByte() != VERSION) {
+        throw new IllegalArgumentException("Unbekannte Version");
+      }
+      int count = input.readInt();
+      if (count < 1 || count > input.available()) {
+        throw new IllegalArgumentException(String.format("Ungültige Anzahl Schlüsselspalten %d", count));
+      }
+
+      List<String> columns = new ArrayList<>(count);
+      List<Object> values = new ArrayList<>(count);
+      for (int index = 0; index < count; index++) {
+        columns.add(input.readUTF());
+        values.add(readValue(input));
+      }
+      if (input.read() != -1) {
+        throw new IllegalArgumentException("Unerwartete Daten am Ende");
+      }
+      return new KeysetCursor(columns, values);
+    } catch (IOException | RuntimeException ex) {
+      throw new IllegalArgumentException(String.format("Ungültiges Cursor-Token %s", token), ex);
+    }
+  }
+
+  private static Object readValue(DataInputStream input) throws IOException {
+    char tag = input.readChar();
+    switch (tag) {
+    case STRING:
+      return input.readUTF();
+    case NUMBER:
+      return new BigDecimal(input.readUTF());
+    case BOOLEAN:
+      return input.readBoolean();
+    case DATE:
+      return LocalDate.parse(input.readUTF());
+    case TIMESTAMP:
+      return LocalDateTime.parse(input.readUTF());
+    default:
+      throw new IllegalArgumentException(String.format("Unbekanntes Typ-Kennzeichen %s", tag));
+    }
+  }
+
+  public List<String> getKeyColumns() {
+    return keyColumns;
+  }
+
+  public List<Object> getKeyValues() {
+    return keyValues;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("KeysetCursor [keyColumns=%s, keyValues=%s]", keyColumns, keyValues);
+  }
+}
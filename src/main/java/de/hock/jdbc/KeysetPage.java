@@ -0,0 +1,61 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Eine Seite einer Keyset-Paginierung mit den Zeilen und der Position
+ * f&uuml;r die n&auml;chste Seite.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ * @param <T>
+ *          Typ der Zeilen
+ */
+public class KeysetPage<T> {
+
+  private final List<T> rows;
+  private final KeysetCursor nextCursor;
+
+  public KeysetPage(List<T> rows, KeysetCursor nextCursor) {
+    this.rows = Collections.unmodifiableList(rows);
+    this.nextCursor = nextCursor;
+  }
+
+  public List<T> getRows() {
+    return rows;
+  }
+
+  /**
+   * @return <code>true</code>, wenn die Seite voll war und es weitere Zeilen
+   *         geben kann. Ist die Anzahl Zeilen ein Vielfaches der
+   *         Seitengr&ouml;&szlig;e, ist die letzte Seite leer.
+   */
+  public boolean hasNext() {
+    return Objects.nonNull(nextCursor);
+  }
+
+  /**
+   * @return Position nach der letzten Zeile dieser Seite oder
+   *         <code>null</code> nach der letzten Seite
+   */
+  public KeysetCursor getNextCursor() {
+    return nextCursor;
+  }
+
+  /**
+   * @return Token f&uuml;r die n&auml;chste Seite oder <code>null</code> nach
+   *         der letzten Seite
+   */
+  public String getNextToken() {
+    return Objects.isNull(nextCursor) ? null : nextCursor.toToken();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("KeysetPage [rows=%d, nextCursor=%s]", rows.size(), nextCursor);
+  }
+}
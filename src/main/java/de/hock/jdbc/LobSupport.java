@@ -0,0 +1,195 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hilfe-Methoden f&uuml;r BLOB/CLOB Spalten. Die Inhalte werden in
+ * Bl&ouml;cken von {@link #CHUNK_SIZE} kopiert, ohne den ganzen LOB im
+ * Speicher aufzubauen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public final class LobSupport {
+
+  /** Blockgr&ouml;&szlig;e beim Kopieren. */
+  public static final int CHUNK_SIZE = 8192;
+
+  private LobSupport() {
+  }
+
+  /**
+   * Kopiert den ganzen Stream in Bl&ouml;cken in den Ziel-Stream. Beide
+   * Streams bleiben offen.
+   *
+   * @return Anzahl kopierter Bytes
+   * @throws IOException
+   *           falls Lesen oder Schreiben fehlschl&auml;gt.
+   */
+  public static long copy(InputStream input, OutputStream output) throws IOException {
+    byte[] buffer = new byte[CHUNK_SIZE];
+    long count = 0;
+    int read;
+    while ((read = input.read(buffer)) != -1) {
+      output.write(buffer, 0, read);
+      count += read;
+    }
+    return count;
+  }
+
+  /**
+   * Kopiert den ganzen Reader in Bl&ouml;cken in den Writer. Reader und Writer
+   * bleiben offen.
+   *
+   * @return Anzahl kopierter Zeichen
+   * @throws IOException
+   *           falls Lesen oder Schreiben fehlschl&auml;gt.
+   */
+  public static long copy(Reader reader, Writer writer) throws IOException {
+    return copy(reader, (Appendable) writer);
+  }
+
+  /**
+   * Kopiert den ganzen Reader in Bl&ouml;cken in das Ziel, z.B. einen
+   * {@link StringBuilder} oder {@link Writer}. Der Reader bleibt offen.
+   *
+   * @return Anzahl kopierter Zeichen
+   * @throws IOException
+   *           falls Lesen oder Schreiben fehlschl&auml;gt.
+   */
+  public static long copy(Reader reader, Appendable sink) throws IOException {
+    CharBuffer buffer = CharBuffer.allocate(CHUNK_SIZE);
+    long count = 0;
+    int read;
+    while ((read = reader.read(buffer.array(), 0, CHUNK_SIZE)) != -1) {
+      sink.append(buffer, 0, read);
+      count += read;
+    }
+    return count;
+  }
+
+  /**
+   * Schreibt den Stream im Format von {@link java.util.Arrays#toString(byte[])}
+   * (<code>[1, 2, 3]</code>) in das Ziel, ohne das Byte-Array aufzubauen. Der
+   * Stream bleibt offen.
+   *
+   * @throws IOException
+   *           falls Lesen oder Schreiben fehlschl&auml;gt.
+   */
+  public static void appendByteArrayString(InputStream input, Appendable sink) throws IOException {
+    byte[] buffer = new byte[CHUNK_SIZE];
+    boolean first = true;
+    int read;
+
+    sink.append('[');
+    while ((read = input.read(buffer)) != -1) {
+      for (int index = 0; index < read; index++) {
+        if (!first) {
+          sink.append(", ");
+        }
+        sink.append(Byte.toString(buffer[index]));
+        first = false;
+      }
+    }
+    sink.append(']');
+  }
+
+  /**
+   * @return <code>true</code> f&uuml;r {@link InputStream} und {@link Reader},
+   *         die nach dem ersten Lesen verbraucht sind.
+   */
+  static boolean isStreamType(Class<?> type) {
+    return InputStream.class.isAssignableFrom(type) || Reader.class.isAssignableFrom(type);
+  }
+
+  /**
+   * Pr&uuml;ft, ob eine zu schreibende Zeile einen Stream enth&auml;lt, der
+   * nach einem fehlgeschlagenen Batch nicht noch einmal gebunden werden kann.
+   * {@link Path}, <code>byte[]</code>, Blob und Clob k&ouml;nnen wiederholt
+   * gebunden werden.
+   *
+   * @param row
+   *          Platzhalterwerte als {@link List} oder eine Entity
+   */
+  static boolean holdsStream(Object row) {
+    if (row instanceof List) {
+      return ((List<?>) row).stream().anyMatch(value -> Objects.nonNull(value) && isStreamType(value.getClass()));
+    }
+    return Objects.nonNull(row) && EntityMetadataRegistry.getInstance().getMetadata(row.getClass()).hasStreamColumns();
+  }
+
+  /**
+   * Liefert einen Stream auf die Datei, der erst beim ersten Lesen
+   * ge&ouml;ffnet und am Dateiende geschlossen wird. So bleiben bei einem
+   * Batch mit vielen Dateien nicht alle Dateien gleichzeitig offen.
+   *
+   * @param path
+   *          eine Datei
+   * @return ein {@link InputStream} auf die Datei
+   */
+  public static InputStream openLazy(Path path) {
+    return new PathInputStream(path);
+  }
+
+  /**
+   * Ein {@link InputStream}, der die Datei erst beim ersten Lesen
+   * &ouml;ffnet und am Dateiende schlie&szlig;t.
+   */
+  private static final class PathInputStream extends InputStream {
+
+    private final Path path;
+    private InputStream delegate;
+    private boolean exhausted;
+
+    private PathInputStream(Path path) {
+      this.path = path;
+    }
+
+    @Override
+    public int read() throws IOException {
+      InputStream input = open();
+      int value = Objects.isNull(input) ? -1 : input.read();
+      if (value == -1) {
+        close();
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      InputStream input = open();
+      int read = Objects.isNull(input) ? -1 : input.read(buffer, offset, length);
+      if (read == -1) {
+        close();
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      exhausted = true;
+      if (Objects.nonNull(delegate)) {
+        delegate.close();
+        delegate = null;
+      }
+    }
+
+    private InputStream open() throws IOException {
+      if (Objects.isNull(delegate) && !exhausted) {
+        delegate = Files.newInputStream(path);
+      }
+      return delegate;
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Hilfe-Methoden f&uuml;r generierte {@link RowMapper} und
+ * {@link EntityBinder}. Alle Methoden lesen und setzen Werte &uuml;ber den
+ * Spaltenindex, ohne Reflection.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public final class MapperSupport {
+
+  private MapperSupport() {
+  }
+
+  /**
+   * Ermittelt f&uuml;r jeden Spaltennamen den Index in der {@link ResultSet}.
+   * Der Vergleich ist unabh&auml;ngig von Gro&szlig;- und Kleinschreibung.
+   * Wie beim Mapping per Reflection muss jede Spalte der {@link ResultSet}
+   * zu einem Property passen.
+   *
+   * @param resultSet
+   *          ein {@link ResultSet}-Objekt
+   * @param columnNames
+   *          pro Property ein oder mehrere m&ouml;gliche Spaltennamen
+   * @param entityName
+   *          Name der Entity-Klasse f&uuml;r die Fehlermeldung
+   * @return pro Property der Spaltenindex (ab 1), oder 0 wenn die Spalte
+   *         fehlt.
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   * @throws IllegalArgumentException
+   *           wenn eine Spalte zu keinem Property passt
+   */
+  public static int[] resolveColumnIndexes(ResultSet resultSet, String[][] columnNames, String entityName) throws SQLException {
+    ResultSetMetaData metadata = resultSet.getMetaData();
+    int columnCount = metadata.getColumnCount();
+    int[] indexes = new int[columnNames.length];
+    StringJoiner unknownColumns = new StringJoiner(", ");
+
+    for (int column = 1; column <= columnCount; column++) {
+      String label = metadata.getColumnLabel(column);
+      boolean known = false;
+      for (int property = 0; property < columnNames.length; property++) {
+        for (String name : columnNames[property]) {
+          if (name.equalsIgnoreCase(label)) {
+            known = true;
+            if (indexes[property] == 0) {
+              indexes[property] = column;
+            }
+          }
+        }
+      }
+      if (!known) {
+        unknownColumns.add(label);
+      }
+    }
+
+    if (unknownColumns.length() > 0) {
+      throw new IllegalArgumentException(String.format("Die Entityklasse hat %s keine passende felder für %s", entityName, unknownColumns));
+    }
+    return indexes;
+  }
+
+  public static java.time.LocalDate getLocalDate(ResultSet resultSet, int index) throws SQLException {
+    Date date = resultSet.getDate(index);
+    return Objects.isNull(date) ? null : date.toLocalDate();
+  }
+
+  public static java.time.LocalTime getLocalTime(ResultSet resultSet, int index) throws SQLException {
+    Time time = resultSet.getTime(index);
+    return Objects.isNull(time) ? null : time.toLocalTime();
+  }
+
+  public static java.time.LocalDateTime getLocalDateTime(ResultSet resultSet, int index) throws SQLException {
+    Timestamp timestamp = resultSet.getTimestamp(index);
+    return Objects.isNull(timestamp) ? null : timestamp.toLocalDateTime();
+  }
+
+  /**
+   * Liest ein Enum &uuml;ber den {@link EnumCodec} der Enum-Klasse, also wie
+   * beim Lesen per Reflection: Name der Konstante, Wert von
+   * <code>value()</code> oder <code>fromValue</code>.
+   */
+  public static <E extends Enum<E>> E getEnum(ResultSet resultSet, int index, Class<E> enumType) throws SQLException {
+    return enumType.cast(EnumCodec.of(enumType).decode(resultSet.getString(index)));
+  }
+
+  public static void setString(PreparedStatement preparedStatement, int index, String value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setString(index, value);
+    }
+  }
+
+  public static void setBigDecimal(PreparedStatement preparedStatement, int index, BigDecimal value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setBigDecimal(index, value);
+    }
+  }
+
+  public static void setBoolean(PreparedStatement preparedStatement, int index, Boolean value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setBoolean(index, value);
+    }
+  }
+
+  public static void setByte(PreparedStatement preparedStatement, int index, Byte value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setByte(index, value);
+    }
+  }
+
+  public static void setShort(PreparedStatement preparedStatement, int index, Short value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setShort(index, value);
+    }
+  }
+
+  public static void setInteger(PreparedStatement preparedStatement, int index, Integer value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setInt(index, value);
+    }
+  }
+
+  public static void setLong(PreparedStatement preparedStatement, int index, Long value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setLong(index, value);
+    }
+  }
+
+  public static void setFloat(PreparedStatement preparedStatement, int index, Float value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setFloat(index, value);
+    }
+  }
+
+  public static void setDouble(PreparedStatement preparedStatement, int index, Double value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setDouble(index, value);
+    }
+  }
+
+  public static void setLocalDate(PreparedStatement preparedStatement, int index, java.time.LocalDate value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setDate(index, Date.valueOf(value));
+    }
+  }
+
+  public static void setLocalTime(PreparedStatement preparedStatement, int index, java.time.LocalTime value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setTime(index, Time.valueOf(value));
+    }
+  }
+
+  public static void setLocalDateTime(PreparedStatement preparedStatement, int index, java.time.LocalDateTime value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setTimestamp(index, Timestamp.valueOf(value));
+    }
+  }
+
+  public static void setBytes(PreparedStatement preparedStatement, int index, byte[] value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setBytes(index, value);
+    }
+  }
+
+  public static void setEnum(PreparedStatement preparedStatement, int index, Enum<?> value) throws SQLException {
+    if (Objects.isNull(value)) {
+      setNull(preparedStatement, index);
+    } else {
+      preparedStatement.setString(index, value.toString());
+    }
+  }
+
+  private static void setNull(PreparedStatement preparedStatement, int index) throws SQLException {
+    preparedStatement.setNull(index, Types.NULL);
+  }
+}
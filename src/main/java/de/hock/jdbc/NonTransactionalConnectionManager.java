@@ -0,0 +1,114 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import oracle.ucp.jdbc.PoolDataSource;
+
+/**
+ * {@link ConnectionManager} ohne Transaktion: jede Datenbankoperation zieht
+ * ihre eigene {@link Connection} aus dem Pool, committed selbst und gibt die
+ * Connection danach zur&uuml;ck.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class NonTransactionalConnectionManager implements ConnectionManager {
+
+  private static final Logger logger = Logger.getLogger(NonTransactionalConnectionManager.class.getSimpleName());
+
+  private PoolDataSource poolDatasource;
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.ConnectionManager#getConnection()
+   */
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (Objects.isNull(poolDatasource)) {
+      throw new IllegalStateException("Dem ConnectionManager ist keine PoolDataSource gesetzt.");
+    }
+    return poolDatasource.getConnection();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.ConnectionManager#close(java.sql.Connection,
+   * java.sql.Statement)
+   */
+  @Override
+  public void close(Connection connection, Statement statement) {
+    closeStatement(statement);
+
+    try {
+      if (Objects.nonNull(connection)) {
+        connection.close();
+      }
+    } catch (SQLException sqlEx) {
+      logger.log(Level.SEVERE, "Fehler beim Connection zu schlißen.", sqlEx);
+    }
+  }
+
+  /**
+   * Schlie&szlig;t nur das Statement.
+   */
+  static void closeStatement(Statement statement) {
+    try {
+      if (Objects.nonNull(statement)) {
+        statement.close();
+      }
+    } catch (SQLException sqlEx) {
+      logger.log(Level.SEVERE, "Fehler beim PreparedStatement zu schlißen.", sqlEx);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.ConnectionManager#commit(java.sql.Connection)
+   */
+  @Override
+  public void commit(Connection connection) throws SQLException {
+    connection.commit();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.ConnectionManager#rollback(java.sql.Connection)
+   */
+  @Override
+  public void rollback(Connection connection) {
+    try {
+      if (Objects.nonNull(connection)) {
+        connection.rollback();
+      }
+    } catch (SQLException sqlEx) {
+      logger.log(Level.SEVERE, "Fehler beim Rollback.", sqlEx);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see
+   * de.hock.jdbc.ConnectionManager#setDatasource(oracle.ucp.jdbc.PoolDataSource)
+   */
+  @Override
+  public void setDatasource(PoolDataSource poolDatasource) {
+    this.poolDatasource = poolDatasource;
+  }
+
+  @Override
+  public boolean istTransactionalConnectionManager() {
+    return false;
+  }
+}
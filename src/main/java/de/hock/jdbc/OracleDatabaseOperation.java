@@ -4,24 +4,43 @@
 package de.hock.jdbc;
 
 import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import de.hock.jdbc.BulkInsertResult.PartitionFailure;
+import de.hock.run.ConfigProperty;
 import oracle.ucp.jdbc.PoolDataSource;
 
 /**
@@ -35,22 +54,339 @@ public class OracleDatabaseOperation implements DatabaseOperation {
   // COLUMN_ID";
   private static final String SELECT_META_INFORMATION = "select column_name, data_type from user_tab_columns where table_name = ?";
 
-  private static final int DEFAULT_BATCH_SIZE = 1000;
-  private static final int DEFAULT_FETCH_SIZE = 200;
   private static final String QUERY_LOG = "Select query {0}.";
 
   private static final Logger logger = Logger.getLogger(OracleDatabaseOperation.class.getSimpleName());
   private static final DatatypeFormatter formatter = new DatatypeFormatter();
 
-  private EntityReflection reflection = new EntityReflection();
+  /** H&ouml;chstens so viele {@link BatchSizeController} werden gehalten. */
+  private static final int MAX_BATCH_CONTROLLERS = 1024;
+
+  /**
+   * Batchgr&ouml;&szlig;e pro Query und Batch-Einstellungen, prozessweit
+   * geteilt, damit die adaptive Anpassung &uuml;ber mehrere Operationen
+   * erhalten bleibt. Der am l&auml;ngsten nicht benutzte Eintrag wird
+   * verdr&auml;ngt.
+   */
+  private static final Map<List<Object>, BatchSizeController> batchControllers = new LinkedHashMap<List<Object>, BatchSizeController>(16, 0.75f,
+      true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<Object>, BatchSizeController> eldest) {
+      return size() > MAX_BATCH_CONTROLLERS;
+    }
+  };
+
+  /** Generierte Queries pro Tabelle und Spaltenliste, prozessweit geteilt. */
+  private static final SqlCache sqlCache = new SqlCache(Integer.parseInt(ConfigProperty.SQL_CACHE_SIZE.defaultValue()));
+
+  private EntityMetadataRegistry metadataRegistry = EntityMetadataRegistry.getInstance();
   private PlaceholderSetter platzhalterSetzer = new PlaceholderSetter();
   private ParameterValidator validator = new ParameterValidator();
+  private ListSplit listSplit = new ListSplit();
   private Map<String, Map<String, String>> chacheTableInfo = new HashMap<>();
 
   private PoolDataSource oraclePoolConnection;
+  private final int batchSize;
+  private final int minBatchSize;
+  private final int maxBatchSize;
+  private final boolean adaptiveBatchSize;
+  private final int insertParallelism;
+  private final int commitInterval;
+  private final boolean isolateBatchFailures;
+  private final int fetchSize;
+  private final boolean adaptiveFetchSize;
+  private final int fetchByteBudget;
+  private final int prefetchRows;
+  private CheckpointStore checkpointStore;
+  private RejectSink rejectSink;
+  private ConnectionManager connectionManager;
 
   public OracleDatabaseOperation(PoolDataSource oraclePool) {
+    this(oraclePool, new Properties());
+  }
+
+  /**
+   * Erzeugt die Operation mit Batch-Einstellungen aus <code>properties</code>
+   * ({@link ConfigProperty#BATCH_SIZE}, {@link ConfigProperty#ADAPTIVE_BATCH_SIZE},
+   * {@link ConfigProperty#MIN_BATCH_SIZE}, {@link ConfigProperty#MAX_BATCH_SIZE})
+   * und der Parallelit&auml;t f&uuml;r Tabellen-Inserts
+   * ({@link ConfigProperty#INSERT_PARALLELISM}). Mit
+   * {@link ConfigProperty#COMMIT_INTERVAL} wird beim Schreiben periodisch
+   * committed, mit {@link ConfigProperty#CHECKPOINT_PATH} werden die Commits
+   * in einem {@link FileCheckpointStore} festgehalten. Mit
+   * {@link ConfigProperty#ISOLATE_BATCH_FAILURES} werden fehlerhafte Zeilen
+   * eines Batches isoliert und an {@link ConfigProperty#REJECT_FILE} bzw. das
+   * Log &uuml;bergeben. Selects lesen mit {@link ConfigProperty#FETCH_SIZE},
+   * oder mit {@link ConfigProperty#ADAPTIVE_FETCH_SIZE} mit einer
+   * wachsenden Fetch-Size bis {@link ConfigProperty#FETCH_BYTE_BUDGET}.
+   * Mit {@link ConfigProperty#PREFETCH_ROWS} werden Zeilen in einem
+   * Hintergrund-Thread vorausgelesen ({@link PrefetchingReadItem}).
+   *
+   * @param oraclePool
+   *          ein {@link PoolDataSource}-Objekt
+   * @param properties
+   *          Konfiguration
+   */
+  public OracleDatabaseOperation(PoolDataSource oraclePool, Properties properties) {
     oraclePoolConnection = oraclePool;
+    connectionManager = new NonTransactionalConnectionManager();
+    connectionManager.setDatasource(oraclePool);
+    batchSize = ConfigProperty.BATCH_SIZE.intValue(properties);
+    minBatchSize = ConfigProperty.MIN_BATCH_SIZE.intValue(properties);
+    maxBatchSize = ConfigProperty.MAX_BATCH_SIZE.intValue(properties);
+    insertParallelism = ConfigProperty.INSERT_PARALLELISM.intValue(properties);
+    commitInterval = ConfigProperty.COMMIT_INTERVAL.intValue(properties);
+    String checkpointPath = properties.getProperty(ConfigProperty.CHECKPOINT_PATH.propKey(), ConfigProperty.CHECKPOINT_PATH.defaultValue()).trim();
+    checkpointStore = checkpointPath.isEmpty() ? null : new FileCheckpointStore(Paths.get(checkpointPath));
+    isolateBatchFailures = Boolean.parseBoolean(
+        properties.getProperty(ConfigProperty.ISOLATE_BATCH_FAILURES.propKey(), ConfigProperty.ISOLATE_BATCH_FAILURES.defaultValue()));
+    String rejectFile = properties.getProperty(ConfigProperty.REJECT_FILE.propKey(), ConfigProperty.REJECT_FILE.defaultValue()).trim();
+    rejectSink = rejectFile.isEmpty() ? OracleDatabaseOperation::logRejectedRow : new FileRejectSink(Paths.get(rejectFile));
+    fetchSize = ConfigProperty.FETCH_SIZE.intValue(properties);
+    adaptiveFetchSize = Boolean.parseBoolean(properties.getProperty(ConfigProperty.ADAPTIVE_FETCH_SIZE.propKey(), ConfigProperty.ADAPTIVE_FETCH_SIZE.defaultValue()));
+    fetchByteBudget = ConfigProperty.FETCH_BYTE_BUDGET.intValue(properties);
+    prefetchRows = ConfigProperty.PREFETCH_ROWS.intValue(properties);
+    adaptiveBatchSize = Boolean.parseBoolean(properties.getProperty(ConfigProperty.ADAPTIVE_BATCH_SIZE.propKey(), ConfigProperty.ADAPTIVE_BATCH_SIZE.defaultValue()));
+  }
+
+  /**
+   * Liefert den {@link BatchSizeController} f&uuml;r das Query und die
+   * Batch-Einstellungen dieser Operation. Operationen mit anderen
+   * Einstellungen bekommen einen eigenen Controller.
+   *
+   * @param query
+   *          ein Schreibquery
+   * @return {@link BatchSizeController} des Queries
+   */
+  public BatchSizeController getBatchSizeController(String query) {
+    List<Object> key = adaptiveBatchSize ? Arrays.asList(query, batchSize, minBatchSize, maxBatchSize) : Arrays.asList(query, batchSize);
+    synchronized (batchControllers) {
+      BatchSizeController controller = batchControllers.get(key);
+      if (Objects.isNull(controller)) {
+        controller = adaptiveBatchSize ? new BatchSizeController(batchSize, minBatchSize, maxBatchSize, true) : new BatchSizeController(batchSize);
+        logger.log(Level.FINE, "Neue Batchsteuerung {0} für {1}", new Object[] { controller, query });
+        batchControllers.put(key, controller);
+        warnOnStatementCacheSize(batchControllers.size());
+      }
+      return controller;
+    }
+  }
+
+  /**
+   * Mehr verschiedene Schreibqueries als Pl&auml;tze im Statement-Cache des
+   * Pools verdr&auml;ngen sich gegenseitig, siehe
+   * {@link ConfigProperty#MAX_STATEMENTS}.
+   */
+  private void warnOnStatementCacheSize(int distinctQueries) {
+    int maxStatements = oraclePoolConnection.getMaxStatements();
+    if (maxStatements > 0 && distinctQueries == maxStatements + 1) {
+      logger.log(Level.WARNING, "{0} verschiedene Schreibqueries, aber nur {1} Plätze im Statement-Cache ({2}).",
+          new Object[] { distinctQueries, maxStatements, ConfigProperty.MAX_STATEMENTS.propKey() });
+    }
+  }
+
+  /**
+   * @return Kopie aller {@link BatchSizeController} pro Query und
+   *         Einstellungen, z.B. f&uuml;r Metriken.
+   */
+  public static Map<List<Object>, BatchSizeController> getBatchSizeControllers() {
+    synchronized (batchControllers) {
+      return Collections.unmodifiableMap(new LinkedHashMap<>(batchControllers));
+    }
+  }
+
+  /**
+   * Setzt die Gr&ouml;&szlig;e des prozessweit geteilten Caches der generierten
+   * Queries auf {@link ConfigProperty#SQL_CACHE_SIZE}. Wird einmal beim Start
+   * aufgerufen, nicht pro Operation.
+   */
+  public static void configureSqlCache(Properties properties) {
+    sqlCache.setMaxSize(ConfigProperty.SQL_CACHE_SIZE.intValue(properties));
+  }
+
+  /**
+   * @return Cache der generierten Queries, z.B. f&uuml;r Treffer-Metriken.
+   */
+  public static SqlCache getSqlCache() {
+    return sqlCache;
+  }
+
+  /**
+   * @return {@link CheckpointStore} f&uuml;r wiederaufnehmbare Ladevorg&auml;nge
+   *         oder <code>null</code>
+   */
+  public CheckpointStore getCheckpointStore() {
+    return checkpointStore;
+  }
+
+  public void setCheckpointStore(CheckpointStore checkpointStore) {
+    this.checkpointStore = checkpointStore;
+  }
+
+  /**
+   * @return Empf&auml;nger der abgewiesenen Zeilen, wenn
+   *         {@link ConfigProperty#ISOLATE_BATCH_FAILURES} gesetzt ist
+   */
+  public RejectSink getRejectSink() {
+    return rejectSink;
+  }
+
+  public void setRejectSink(RejectSink rejectSink) {
+    validator.verifyArguments(rejectSink);
+    this.rejectSink = rejectSink;
+  }
+
+  private static void logRejectedRow(String query, Object row, SQLException cause) {
+    logger.log(Level.WARNING, String.format("Zeile %s von %s wurde abgewiesen.", row, query), cause);
+  }
+
+  /**
+   * F&uuml;hrt alle Zeilen in Batches aus. Die Batchgr&ouml;&szlig;e liefert der
+   * {@link BatchSizeController} des Queries, jede Runde wird gemessen und
+   * zur&uuml;ckgemeldet.
+   *
+   * Mit {@link ConfigProperty#ISOLATE_BATCH_FAILURES} werden die Zeilen des
+   * laufenden Batches zus&auml;tzlich gehalten. Schl&auml;gt ein Batch fehl,
+   * wird er bis zum Savepoint davor zur&uuml;ckgerollt und in H&auml;lften
+   * wiederholt, bis die fehlerhaften Zeilen gefunden sind. Diese gehen an den
+   * {@link RejectSink}, alle anderen Zeilen werden geschrieben.
+   *
+   * @param preparedStatement
+   *          vorbereitetes Statement
+   * @param query
+   *          das Query, Schl&uuml;ssel f&uuml;r den {@link BatchSizeController}
+   * @param rows
+   *          die Zeilen
+   * @param binder
+   *          setzt die Platzhalter pro Zeile
+   * @param committer
+   *          committed nach den Batches, sobald das Commit-Intervall erreicht
+   *          ist
+   * @return Summe der Update-Counts
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  private <R> int executeBatches(PreparedStatement preparedStatement, String query, Iterator<? extends R> rows, ParameterBinder<R> binder,
+      PeriodicCommitter committer) throws SQLException {
+    BatchSizeController controller = getBatchSizeController(query);
+    int updateCount = 0;
+    int pending = 0;
+    int currentBatchSize = controller.getBatchSize();
+    List<R> batch = isolateBatchFailures ? new ArrayList<>(currentBatchSize) : null;
+
+    while (rows.hasNext()) {
+      R row = rows.next();
+      binder.bind(preparedStatement, row);
+      preparedStatement.addBatch();
+      pending++;
+      if (Objects.nonNull(batch)) {
+        batch.add(row);
+      }
+      if (pending >= currentBatchSize) {
+        updateCount += Objects.isNull(batch) ? executeBatch(preparedStatement, controller, pending)
+            : executeIsolated(preparedStatement, query, controller, batch, binder);
+        committer.afterBatch(pending);
+        pending = 0;
+        currentBatchSize = controller.getBatchSize();
+      }
+    }
+    if (pending > 0) {
+      updateCount += Objects.isNull(batch) ? executeBatch(preparedStatement, controller, pending)
+          : executeIsolated(preparedStatement, query, controller, batch, binder);
+      committer.afterBatch(pending);
+    }
+
+    logger.log(Level.FINE, "Batchgröße {0} für {1}", new Object[] { controller, query });
+    return updateCount;
+  }
+
+  private int executeBatch(PreparedStatement preparedStatement, BatchSizeController controller, int rows) throws SQLException {
+    long start = System.nanoTime();
+    int[] results = preparedStatement.executeBatch();
+    controller.record(rows, System.nanoTime() - start);
+
+    return sumUpdateCounts(results);
+  }
+
+  /**
+   * F&uuml;hrt den gebundenen Batch hinter einem Savepoint aus. Bei einer
+   * {@link BatchUpdateException} wird zum Savepoint zur&uuml;ckgerollt und der
+   * Batch halbiert wiederholt. Enth&auml;lt der Batch einen
+   * {@link java.io.InputStream} oder {@link java.io.Reader}, ist er bereits
+   * gelesen; dann gehen alle Zeilen an den {@link RejectSink}. Die Liste
+   * <code>batch</code> wird danach geleert.
+   */
+  private <R> int executeIsolated(PreparedStatement preparedStatement, String query, BatchSizeController controller, List<R> batch,
+      ParameterBinder<R> binder) throws SQLException {
+    Connection connection = preparedStatement.getConnection();
+    Savepoint savepoint = connection.setSavepoint();
+    try {
+      return executeBatch(preparedStatement, controller, batch.size());
+    } catch (BatchUpdateException ex) {
+      connection.rollback(savepoint);
+      preparedStatement.clearBatch();
+      if (batch.stream().anyMatch(LobSupport::holdsStream)) {
+        // gelesene Streams lassen sich nicht erneut binden, der ganze Batch wird abgewiesen
+        logger.log(Level.WARNING, "Batch mit {0} Zeilen und Streams ist fehlgeschlagen und kann nicht halbiert werden: {1}",
+            new Object[] { batch.size(), ex.getMessage() });
+        batch.forEach(row -> rejectSink.reject(query, row, ex));
+        return 0;
+      }
+      logger.log(Level.FINE, "Batch mit {0} Zeilen ist fehlgeschlagen, wird halbiert: {1}", new Object[] { batch.size(), ex.getMessage() });
+      return bisect(preparedStatement, query, batch, binder, ex);
+    } finally {
+      batch.clear();
+    }
+  }
+
+  /**
+   * Wiederholt beide H&auml;lften der fehlgeschlagenen Zeilen. Eine einzelne
+   * fehlerhafte Zeile geht an den {@link RejectSink}.
+   */
+  private <R> int bisect(PreparedStatement preparedStatement, String query, List<R> rows, ParameterBinder<R> binder, BatchUpdateException cause)
+      throws SQLException {
+    if (rows.size() == 1) {
+      rejectSink.reject(query, rows.get(0), cause);
+      return 0;
+    }
+
+    int middle = rows.size() / 2;
+    return retryBatch(preparedStatement, query, rows.subList(0, middle), binder)
+        + retryBatch(preparedStatement, query, rows.subList(middle, rows.size()), binder);
+  }
+
+  private <R> int retryBatch(PreparedStatement preparedStatement, String query, List<R> rows, ParameterBinder<R> binder) throws SQLException {
+    Connection connection = preparedStatement.getConnection();
+    Savepoint savepoint = connection.setSavepoint();
+    try {
+      for (R row : rows) {
+        binder.bind(preparedStatement, row);
+        preparedStatement.addBatch();
+      }
+      return sumUpdateCounts(preparedStatement.executeBatch());
+    } catch (BatchUpdateException ex) {
+      connection.rollback(savepoint);
+      preparedStatement.clearBatch();
+      return bisect(preparedStatement, query, rows, binder, ex);
+    }
+  }
+
+  /**
+   * Summiert die Ergebnisse von {@link PreparedStatement#executeBatch()},
+   * {@link Statement#SUCCESS_NO_INFO} z&auml;hlt als eine Zeile.
+   */
+  private static int sumUpdateCounts(int[] results) {
+    int count = 0;
+    for (int result : results) {
+      if (result > 0) {
+        count += result;
+      } else if (result == Statement.SUCCESS_NO_INFO) {
+        count++;
+      }
+    }
+    return count;
   }
 
   /**
@@ -61,45 +397,76 @@ public class OracleDatabaseOperation implements DatabaseOperation {
    *          ein SQL Query zu durchführen
    * @param rowsOfColumnValues
    *          platzhalter Werte, die wird verwendet, Query Parameter zu
-   *          austauchen.
+   *          austauchen. Die Zeilen werden erst beim Schreiben gelesen.
+   * @param loadId
+   *          Id f&uuml;r einen wiederaufnehmbaren Ladevorgang oder
+   *          <code>null</code>
    * @return leifert Anzahl des aktulisiertes/geschriebenes Datensatz
    * @throws SQLException
    *           falls ein {@link SQLException} trat auf.
    */
-  private int batchExecute(String query, List<List<Object>> rowsOfColumnValues) throws SQLException {
+  private int batchExecute(String query, Iterator<? extends List<Object>> rowsOfColumnValues, String loadId) throws SQLException {
     validator.verifyArguments(query);
     validator.verifyArguments(rowsOfColumnValues);
-    int insertOrupdateCount = 0;
 
-    Connection connection = null;
-    PreparedStatement preparedStatement = null;
+    return executeTransactional(query, rowsOfColumnValues, platzhalterSetzer::setPlaceholder, loadId);
+  }
+
+  /**
+   * Schreibt alle Zeilen auf einer Connection. Ist
+   * {@link ConfigProperty#COMMIT_INTERVAL} gesetzt, wird nach so vielen Zeilen
+   * (auf der n&auml;chsten Batch-Grenze) committed, sonst einmal am Ende. Bei
+   * einem Fehler wird der nicht committete Rest zur&uuml;ckgerollt.
+   *
+   * Mit einer <code>loadId</code> wird nach jedem Commit der Offset im
+   * {@link CheckpointStore} gespeichert. Ein nach einem Abbruch neu
+   * gestarteter Lauf mit derselben Id &uuml;berspringt die bereits committeten
+   * Zeilen. Nach einem erfolgreichen Lauf wird der Checkpoint entfernt. Die
+   * Zeilen m&uuml;ssen bei jedem Lauf in derselben Reihenfolge geliefert
+   * werden.
+   */
+  private <R> int executeTransactional(String query, Iterator<? extends R> rows, ParameterBinder<R> binder, String loadId) throws SQLException {
+    if (Objects.nonNull(loadId)) {
+      validator.verifyArguments(checkpointStore, String.format("Für den Ladevorgang %s ist kein CheckpointStore konfiguriert.", loadId));
+      if (connectionManager.isTransactionActive()) {
+        throw new IllegalStateException(String.format("Der Ladevorgang %s committed selbst und kann nicht in einer Transaktion laufen.", loadId));
+      }
+    }
 
+    Connection connection = connectionManager.getConnection();
     try {
-      connection = oraclePoolConnection.getConnection();
       connection.setAutoCommit(false);
-
-      preparedStatement = connection.prepareStatement(query);
-
-      int rowCounter = 0;
-      for (List<Object> columnValues : rowsOfColumnValues) {
-        platzhalterSetzer.setPlaceholder(preparedStatement, columnValues);
-        preparedStatement.addBatch();
-        rowCounter++;
-        if ((rowCounter > 0) && ((rowCounter % DEFAULT_BATCH_SIZE) == 0)) {
-          preparedStatement.executeBatch();
-        }
+      PeriodicCommitter committer = new PeriodicCommitter(connection, connectionManager, commitInterval, checkpointStore, loadId);
+      long skipped = skip(rows, committer.getCommittedOffset());
+      if (skipped > 0) {
+        logger.log(Level.INFO, "Ladevorgang {0} wird nach {1} committeten Zeilen fortgesetzt.", new Object[] { loadId, skipped });
       }
-      preparedStatement.executeBatch();
-      insertOrupdateCount = preparedStatement.getUpdateCount();
-      connection.commit();
 
+      try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        int count = executeBatches(preparedStatement, query, rows, binder, committer);
+        committer.complete();
+        return count;
+      }
+    } catch (SQLException | RuntimeException ex) {
+      connectionManager.rollback(connection);
+      throw ex;
     } finally {
-
-      connection.close();
-
+      connectionManager.close(connection, null);
     }
+  }
 
-    return insertOrupdateCount;
+  /**
+   * &Uuml;berspringt h&ouml;chstens <code>count</code> Elemente.
+   *
+   * @return Anzahl &uuml;bersprungener Elemente
+   */
+  private static long skip(Iterator<?> iterator, long count) {
+    long skipped = 0;
+    while (skipped < count && iterator.hasNext()) {
+      iterator.next();
+      skipped++;
+    }
+    return skipped;
   }
 
   /*
@@ -111,38 +478,248 @@ public class OracleDatabaseOperation implements DatabaseOperation {
   @Override
   public <T> void batchInsert(List<T> typedObjects) throws SQLException, IllegalAccessException {
     validator.verifyListArguments(typedObjects);
-    T typedObject = typedObjects.get(0);
+
+    batchInsert(typedObjects.iterator());
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchInsert(java.util.Iterator)
+   */
+  @Override
+  public <T> int batchInsert(Iterator<T> typedObjects) throws SQLException {
+    return insertEntities(typedObjects, null);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#resumableBatchInsert(java.lang.String,
+   * java.util.Iterator)
+   */
+  @Override
+  public <T> int resumableBatchInsert(String loadId, Iterator<T> typedObjects) throws SQLException {
+    validator.verifyArguments(loadId);
+
+    return insertEntities(typedObjects, loadId);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchUpsert(java.util.List)
+   */
+  @Override
+  public <T> int batchUpsert(List<T> typedObjects) throws SQLException {
+    validator.verifyListArguments(typedObjects);
+
+    return batchUpsert(typedObjects.iterator());
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchUpsert(java.util.Iterator)
+   */
+  @Override
+  public <T> int batchUpsert(Iterator<T> typedObjects) throws SQLException {
+    validator.verifyArguments(typedObjects);
+    if (!typedObjects.hasNext()) {
+      return 0;
+    }
+
+    T firstObject = typedObjects.next();
+    EntityMetadata<T> metadata = getInsertMetadata(firstObject);
+    validator.verifyArguments(metadata.getUpsertQuery(), String.format("Die Entityklasse %s hat kein Feld mit @Key", firstObject.getClass().getName()));
+
+    String query = metadata.getUpsertQuery();
+    logger.log(Level.FINEST, "Batch upsert query {0}", query);
+
+    int upsertCount = executeTransactional(query, prepend(firstObject, typedObjects), metadata.getBinder(), null);
+    logger.log(Level.INFO, "{0} Datensatz wurde eingefügt oder aktualisiert.", upsertCount);
+    return upsertCount;
+  }
+
+  private <T> int insertEntities(Iterator<T> typedObjects, String loadId) throws SQLException {
+    validator.verifyArguments(typedObjects);
+    if (!typedObjects.hasNext()) {
+      return 0;
+    }
+
+    // Die erste Entity bestimmt Metadaten und Query
+    T firstObject = typedObjects.next();
+    EntityMetadata<T> metadata = getInsertMetadata(firstObject);
+
+    String query = metadata.getInsertQuery();
+    logger.log(Level.FINEST, "Batch insert query {0}", query);
+
+    int insertCount = executeTransactional(query, prepend(firstObject, typedObjects), metadata.getBinder(), loadId);
+    logger.log(Level.INFO, "{0} Datensatz wurde geschrieben.", insertCount);
+    return insertCount;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchInsert(java.util.stream.Stream)
+   */
+  @Override
+  public <T> int batchInsert(Stream<T> typedObjects) throws SQLException {
+    validator.verifyArguments(typedObjects);
+
+    return batchInsert(typedObjects.iterator());
+  }
+
+  /**
+   * Liefert einen Iterator, der zuerst <code>first</code> und dann die
+   * restlichen Elemente liefert.
+   */
+  private static <T> Iterator<T> prepend(T first, Iterator<T> rest) {
+    return new Iterator<T>() {
+      private boolean firstReturned;
+
+      @Override
+      public boolean hasNext() {
+        return !firstReturned || rest.hasNext();
+      }
+
+      @Override
+      public T next() {
+        if (!firstReturned) {
+          firstReturned = true;
+          return first;
+        }
+        return rest.next();
+      }
+    };
+  }
+
+  /**
+   * Validiert die Entity und liefert ihre Metadaten.
+   */
+  private <T> EntityMetadata<T> getInsertMetadata(T typedObject) {
     validator.verifyArguments(typedObject);
 
-    List<String> columnNames = reflection.getColumnNameAlias(typedObject);
-    Map<String, Field> fields = reflection.getDeclaredFields(typedObject.getClass(), Column.class);
+    @SuppressWarnings("unchecked")
+    EntityMetadata<T> metadata = (EntityMetadata<T>) metadataRegistry.getMetadata(typedObject.getClass());
+    List<String> columnNames = metadata.getColumnNames();
+    Map<String, Field> fields = metadata.getFields();
     validator.verifyColumnsname(columnNames, fields, typedObject.getClass().getName());
+    validator.verifyArguments(metadata.getTableName());
 
-    String query = erzeugeInsertQuery(typedObject, columnNames);
-    logger.log(Level.FINEST, "Batch insert query {0}", query);
-    Connection connection = null;
-    PreparedStatement preparedStatement = null;
+    return metadata;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#parallelBatchInsert(java.util.List,
+   * int)
+   */
+  @Override
+  public <T> BulkInsertResult parallelBatchInsert(List<T> typedObjects, int parallelism) throws SQLException {
+    validator.verifyListArguments(typedObjects);
+    EntityMetadata<T> metadata = getInsertMetadata(typedObjects.get(0));
+    logger.log(Level.FINEST, "Parallel batch insert query {0}", metadata.getInsertQuery());
+
+    return executePartitioned(metadata.getInsertQuery(), typedObjects, metadata.getBinder(), parallelism);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#parallelBatchInsert(java.lang.String,
+   * java.util.List, int)
+   */
+  @Override
+  public BulkInsertResult parallelBatchInsert(String query, List<List<Object>> rowsOfColumnValues, int parallelism) throws SQLException {
+    validator.verifyArguments(query);
+    validator.verifyListArguments(rowsOfColumnValues);
+    logger.log(Level.FINEST, "Parallel batch insert query {0}", query);
+
+    return executePartitioned(query, rowsOfColumnValues, platzhalterSetzer::setPlaceholder, parallelism);
+  }
+
+  /**
+   * Teilt die Zeilen mit {@link ListSplit} in Partitionen auf und schreibt jede
+   * Partition auf einer eigenen Connection aus dem Pool, mit eigenem Batch und
+   * Commit. Die Anzahl Threads ist durch <code>parallelism</code> und die
+   * maximale Pool-Gr&ouml;&szlig;e begrenzt.
+   *
+   * L&auml;uft im aktuellen Thread eine Transaktion, wird seriell auf ihrer
+   * Connection als eine Partition geschrieben. Die Connections der Threads
+   * w&uuml;rden selbst committen und lie&szlig;en sich nicht mehr
+   * zur&uuml;ckrollen.
+   *
+   * @return aggregiertes Ergebnis mit Fehlern pro Partition
+   * @throws SQLException
+   *           falls das Warten auf die Partitionen unterbrochen wird.
+   */
+  private <R> BulkInsertResult executePartitioned(String query, List<R> rows, ParameterBinder<R> binder, int parallelism) throws SQLException {
+    if (connectionManager.isTransactionActive()) {
+      try {
+        return new BulkInsertResult(executeTransactional(query, rows.iterator(), binder, null), 1, Collections.emptyList());
+      } catch (SQLException | RuntimeException ex) {
+        logger.log(Level.SEVERE, String.format("Insert von %s in der Transaktion ist fehlgeschlagen.", query), ex);
+        return new BulkInsertResult(0, 1, Collections.singletonList(new PartitionFailure(0, 0, rows.size(), ex)));
+      }
+    }
+
+    int threads = Math.max(1, Math.min(parallelism, oraclePoolConnection.getMaxPoolSize()));
+    int partitionSize = (rows.size() + threads - 1) / threads;
+    List<List<R>> partitions = listSplit.splitList(rows, partitionSize);
 
+    ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(partitions.size()));
+    List<Future<Integer>> futures = new ArrayList<>(partitions.size());
     try {
-      connection = oraclePoolConnection.getConnection();
-      preparedStatement = connection.prepareStatement(query);
+      for (List<R> partition : partitions) {
+        futures.add(executor.submit(() -> insertPartition(query, partition, binder)));
+      }
 
-      int rowCounter = 0;
-      for (T type : typedObjects) {
-        platzhalterSetzer.setPlaceholder(preparedStatement, columnNames, fields, type);
-        preparedStatement.addBatch();
-        rowCounter++;
-        if ((rowCounter > 0) && ((rowCounter % DEFAULT_BATCH_SIZE) == 0)) {
-          preparedStatement.executeBatch();
+      long updateCount = 0;
+      List<PartitionFailure> failures = new ArrayList<>();
+      for (int index = 0; index < futures.size(); index++) {
+        try {
+          updateCount += futures.get(index).get();
+        } catch (ExecutionException ex) {
+          Throwable cause = ex.getCause();
+          PartitionFailure failure = new PartitionFailure(index, index * partitionSize, partitions.get(index).size(),
+              cause instanceof Exception ? (Exception) cause : ex);
+          logger.log(Level.SEVERE, String.format("Partition %d von %s ist fehlgeschlagen.", index, query), cause);
+          failures.add(failure);
         }
       }
 
-      preparedStatement.executeBatch();
-      logger.log(Level.INFO, "{0} Datensatz wurde geschrieben.", preparedStatement.getUpdateCount());
-      connection.commit();
+      BulkInsertResult result = new BulkInsertResult(updateCount, partitions.size(), failures);
+      logger.log(Level.INFO, "{0} Datensätze in {1} Partitionen geschrieben, {2} fehlgeschlagen.",
+          new Object[] { updateCount, partitions.size(), failures.size() });
+      return result;
+
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      futures.forEach(future -> future.cancel(true));
+      throw new SQLException("Paralleler Insert wurde unterbrochen.", ex);
+    } finally {
+      executor.shutdown();
+    }
+  }
 
+  private <R> int insertPartition(String query, List<R> rows, ParameterBinder<R> binder) throws SQLException {
+    Connection connection = connectionManager.getConnection();
+    try {
+      connection.setAutoCommit(false);
+      PeriodicCommitter committer = new PeriodicCommitter(connection, connectionManager, commitInterval, null, null);
+      try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        int count = executeBatches(preparedStatement, query, rows.iterator(), binder, committer);
+        committer.complete();
+        return count;
+      }
+    } catch (SQLException | RuntimeException ex) {
+      connectionManager.rollback(connection);
+      throw ex;
     } finally {
-      connection.close();
+      connectionManager.close(connection, null);
     }
   }
 
@@ -154,11 +731,55 @@ public class OracleDatabaseOperation implements DatabaseOperation {
    */
   @Override
   public void batchInsert(String query, List<List<Object>> rowsOfColumnValues) throws SQLException {
+    validator.verifyArguments(rowsOfColumnValues);
+
+    batchInsert(query, rowsOfColumnValues.iterator());
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchInsert(java.lang.String,
+   * java.util.Iterator)
+   */
+  @Override
+  public int batchInsert(String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException {
     logger.log(Level.FINEST, "Batch insert query {0}", query);
 
-    int anzahl = batchExecute(query, rowsOfColumnValues);
+    int anzahl = batchExecute(query, rowsOfColumnValues, null);
+
+    logger.log(Level.FINE, "{0} Datensätze wurden geschrieben,", anzahl);
+    return anzahl;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#resumableBatchInsert(java.lang.String,
+   * java.lang.String, java.util.Iterator)
+   */
+  @Override
+  public int resumableBatchInsert(String loadId, String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    validator.verifyArguments(loadId);
+    logger.log(Level.FINEST, "Resumable batch insert {0} query {1}", new Object[] { loadId, query });
+
+    int anzahl = batchExecute(query, rowsOfColumnValues, loadId);
 
     logger.log(Level.FINE, "{0} Datensätze wurden geschrieben,", anzahl);
+    return anzahl;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchInsert(java.lang.String,
+   * java.util.stream.Stream)
+   */
+  @Override
+  public int batchInsert(String query, Stream<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    validator.verifyArguments(rowsOfColumnValues);
+
+    return batchInsert(query, rowsOfColumnValues.iterator());
   }
 
   /*
@@ -168,13 +789,39 @@ public class OracleDatabaseOperation implements DatabaseOperation {
    * batchUpdate(java.lang.String, java.util.List)
    */
   @Override
-  public int batchUpdate(String query, List<List<Object>> rowsOfColumnValues) throws SQLException {
-    logger.log(Level.FINEST, "Batch update query {0}", query);
-
-    int anzahl = batchExecute(query, rowsOfColumnValues);
+  public int batchUpdate(String query, List<List<Object>> rowsOfColumnValues) throws SQLException {
+    validator.verifyArguments(rowsOfColumnValues);
+
+    return batchUpdate(query, rowsOfColumnValues.iterator());
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchUpdate(java.lang.String,
+   * java.util.Iterator)
+   */
+  @Override
+  public int batchUpdate(String query, Iterator<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    logger.log(Level.FINEST, "Batch update query {0}", query);
+
+    int anzahl = batchExecute(query, rowsOfColumnValues, null);
+
+    logger.log(Level.FINE, "{0} Datensätze wurden aktualisiert", anzahl);
+    return anzahl;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchUpdate(java.lang.String,
+   * java.util.stream.Stream)
+   */
+  @Override
+  public int batchUpdate(String query, Stream<? extends List<Object>> rowsOfColumnValues) throws SQLException {
+    validator.verifyArguments(rowsOfColumnValues);
 
-    logger.log(Level.FINE, "{0} Datensätze wurden aktualisiert", anzahl);
-    return anzahl;
+    return batchUpdate(query, rowsOfColumnValues.iterator());
   }
 
   /*
@@ -188,41 +835,12 @@ public class OracleDatabaseOperation implements DatabaseOperation {
   public int delete(String query, List<Object> columnValues) throws SQLException {
     logger.log(Level.FINEST, "delete query {0}", query);
 
-    int anzahl = batchExecute(query, Arrays.asList(columnValues));
+    int anzahl = batchExecute(query, Arrays.asList(columnValues).iterator(), null);
 
     logger.log(Level.FINE, "{0} Datensätze wurden gelöscht", anzahl);
     return anzahl;
   }
 
-  /**
-   * Diese Methode generiert ein Insert-Query aus dem Typ-Objekt.
-   *
-   * @param typedObject
-   *          ein Typ-Objekt, die in Datenbank persistiert wird.
-   *
-   * @return ein Insert-Query
-   */
-  private <T> String erzeugeInsertQuery(T typedObject, List<String> columnNameAlias) {
-    TableName tableName = reflection.getAnnotation(typedObject.getClass(), TableName.class);
-    validator.verifyArguments(tableName);
-
-    StringJoiner columnJoiner = new StringJoiner(",", "(", ")");
-    StringJoiner platzHalterJoiner = new StringJoiner(",", "(", ")");
-    columnNameAlias.stream().forEach(columnname -> {
-      columnJoiner.add(columnname);
-      platzHalterJoiner.add("?");
-    });
-
-    StringJoiner query = new StringJoiner(" ");
-    query.add("INSERT INTO");
-    query.add(tableName.name());
-    query.add(columnJoiner.toString());
-    query.add("VALUES");
-    query.add(platzHalterJoiner.toString());
-
-    return query.toString();
-  }
-
   /*
    * (non-Javadoc)
    *
@@ -232,23 +850,24 @@ public class OracleDatabaseOperation implements DatabaseOperation {
   @Override
   public void executeDDL(List<String> queries) throws SQLException {
     validator.verifyQueries(queries);
+    verifyNoTransaction(queries);
 
     Connection connection = null;
     Statement preparedStatement = null;
 
     try {
-      connection = oraclePoolConnection.getConnection();
+      connection = connectionManager.getConnection();
       preparedStatement = connection.createStatement();
       for (String query : queries) {
         preparedStatement.addBatch(query);
       }
       preparedStatement.executeBatch();
       int insertOrupdateCount = preparedStatement.getUpdateCount();
-      connection.commit();
+      connectionManager.commit(connection);
       logger.log(Level.FINE, "Update Anzahl {0}", insertOrupdateCount);
 
     } finally {
-      connection.close();
+      connectionManager.close(connection, preparedStatement);
     }
   }
 
@@ -261,9 +880,23 @@ public class OracleDatabaseOperation implements DatabaseOperation {
   @Override
   public void executeDDL(String query, List<Object> placeholder) throws SQLException {
     logger.log(Level.FINEST, "DDL query {0}", query);
+    verifyNoTransaction(query);
+
+    batchExecute(query, Arrays.asList(placeholder).iterator(), null);
 
-    batchExecute(query, Arrays.asList(placeholder));
+  }
 
+  /**
+   * Oracle committed vor und nach jedem DDL implizit, in einer Transaktion
+   * w&uuml;rden so ihre bisherigen &Auml;nderungen festgeschrieben.
+   *
+   * @throws IllegalStateException
+   *           wenn im aktuellen Thread eine Transaktion l&auml;uft
+   */
+  private void verifyNoTransaction(Object ddl) {
+    if (connectionManager.isTransactionActive()) {
+      throw new IllegalStateException(String.format("DDL %s committed implizit und kann nicht in einer Transaktion laufen.", ddl));
+    }
   }
 
   /*
@@ -277,7 +910,7 @@ public class OracleDatabaseOperation implements DatabaseOperation {
   public void insert(String query, List<Object> columnValues) throws SQLException {
     logger.log(Level.FINEST, "Insert query {0}", query);
 
-    int anzahl = batchExecute(query, Arrays.asList(columnValues));
+    int anzahl = batchExecute(query, Arrays.asList(columnValues).iterator(), null);
 
     logger.log(Level.FINE, "{0} Daten wird inserted.", anzahl);
   }
@@ -325,6 +958,64 @@ public class OracleDatabaseOperation implements DatabaseOperation {
    */
   @Override
   public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, Class<T> clazz) throws SQLException {
+    FetchSizeAdvisor advisor = newFetchSizeAdvisor();
+    return prefetch(selectRow(query, columnValues, clazz, Objects.isNull(advisor) ? fetchSize : advisor.getFetchSize(), advisor), holdsStreams(clazz));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectRow(java.lang.String,
+   * java.util.List, java.lang.Class, int)
+   */
+  @Override
+  public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, Class<T> clazz, int fetchSize) throws SQLException {
+    verifyFetchSize(fetchSize);
+
+    return prefetch(selectRow(query, columnValues, clazz, fetchSize, null), holdsStreams(clazz));
+  }
+
+  /**
+   * @return {@link FetchSizeAdvisor} f&uuml;r ein neues Select oder
+   *         <code>null</code>, wenn die Fetch-Size fest ist.
+   */
+  private FetchSizeAdvisor newFetchSizeAdvisor() {
+    return adaptiveFetchSize ? new FetchSizeAdvisor(fetchByteBudget) : null;
+  }
+
+  /**
+   * Liest das {@link ReadItem} mit {@link ConfigProperty#PREFETCH_ROWS} in
+   * einem Hintergrund-Thread voraus. In einer Transaktion nicht, die
+   * Connection der Transaktion geh&ouml;rt dem aktuellen Thread. Auch nicht
+   * bei Zeilen mit {@link java.io.InputStream} oder {@link java.io.Reader},
+   * diese sind nur bis zur n&auml;chsten Zeile g&uuml;ltig. Ein
+   * {@link RowMapper} darf deshalb mit {@link ConfigProperty#PREFETCH_ROWS}
+   * keine Streams aus der {@link ResultSet} liefern.
+   *
+   * @param streamRows
+   *          <code>true</code>, wenn die Zeilen Streams enthalten
+   */
+  private <T> ReadItem<T> prefetch(ReadItem<T> readItem, boolean streamRows) {
+    return prefetchRows > 0 && !streamRows && !connectionManager.isTransactionActive() ? new PrefetchingReadItem<>(readItem, prefetchRows) : readItem;
+  }
+
+  private boolean holdsStreams(Class<?> clazz) {
+    return LobSupport.isStreamType(clazz) || metadataRegistry.getMetadata(clazz).hasStreamColumns();
+  }
+
+  private static void verifyFetchSize(int fetchSize) {
+    if (fetchSize < 1) {
+      throw new IllegalArgumentException(String.format("Ungültige Fetch-Size %d", fetchSize));
+    }
+  }
+
+  private <T> ReadItem<T> selectRow(String query, List<Object> columnValues, Class<T> clazz, int fetchSize, FetchSizeAdvisor advisor)
+      throws SQLException {
+    EntityMetadata<T> metadata = metadataRegistry.getMetadata(clazz);
+    if (metadata.hasGeneratedRowMapper()) {
+      return selectRow(query, columnValues, metadata.newGeneratedRowMapper(), fetchSize, advisor);
+    }
+
     logger.log(Level.FINEST, QUERY_LOG, query);
     validator.verifyArguments(query);
     validator.verifyArguments(columnValues);
@@ -335,21 +1026,24 @@ public class OracleDatabaseOperation implements DatabaseOperation {
 
     try {
 
-      connection = oraclePoolConnection.getConnection();
+      connection = connectionManager.getConnection();
       preparedStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT);
-      preparedStatement.setFetchSize(DEFAULT_FETCH_SIZE);
+      preparedStatement.setFetchSize(fetchSize);
       platzhalterSetzer.setPlaceholder(preparedStatement, columnValues);
 
       ResultSet resultSet = preparedStatement.executeQuery();
       entityMapper = new EntitityWrapper<>();
       entityMapper.parseEntity(clazz);
       entityMapper.setResultSet(resultSet, preparedStatement, connection);
+      entityMapper.setConnectionManager(connectionManager);
+      entityMapper.setFetchSizeAdvisor(advisor);
       return entityMapper;
 
     } catch (SQLException exception) {
 
       if (Objects.nonNull(connection)) {
-        connection.rollback();
+        connectionManager.rollback(connection);
+        connectionManager.close(connection, preparedStatement);
       }
 
       throw exception;
@@ -359,6 +1053,25 @@ public class OracleDatabaseOperation implements DatabaseOperation {
 
   @Override
   public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, RowMapper<T> mapper) throws SQLException {
+    FetchSizeAdvisor advisor = newFetchSizeAdvisor();
+    return prefetch(selectRow(query, columnValues, mapper, Objects.isNull(advisor) ? fetchSize : advisor.getFetchSize(), advisor), false);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectRow(java.lang.String,
+   * java.util.List, de.hock.jdbc.RowMapper, int)
+   */
+  @Override
+  public <T> ReadItem<T> selectRow(String query, List<Object> columnValues, RowMapper<T> mapper, int fetchSize) throws SQLException {
+    verifyFetchSize(fetchSize);
+
+    return prefetch(selectRow(query, columnValues, mapper, fetchSize, null), false);
+  }
+
+  private <T> ReadItem<T> selectRow(String query, List<Object> columnValues, RowMapper<T> mapper, int fetchSize, FetchSizeAdvisor advisor)
+      throws SQLException {
     logger.log(Level.FINEST, QUERY_LOG, query);
     validator.verifyArguments(query);
     validator.verifyArguments(columnValues);
@@ -369,20 +1082,26 @@ public class OracleDatabaseOperation implements DatabaseOperation {
 
     try {
 
-      connection = oraclePoolConnection.getConnection();
+      connection = connectionManager.getConnection();
       preparedStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT);
-      preparedStatement.setFetchSize(DEFAULT_FETCH_SIZE);
+      preparedStatement.setFetchSize(fetchSize);
       platzhalterSetzer.setPlaceholder(preparedStatement, columnValues);
 
       ResultSet resultSet = preparedStatement.executeQuery();
       entityMapper = new RowWrapper<>();
       entityMapper.setMapper(mapper);
       entityMapper.setResultSet(resultSet, preparedStatement, connection);
+      entityMapper.setConnectionManager(connectionManager);
+      entityMapper.setFetchSizeAdvisor(advisor);
       return entityMapper;
 
     } catch (SQLException exception) {
 
-      connection.rollback();
+      if (Objects.nonNull(connection)) {
+        connectionManager.rollback(connection);
+        connectionManager.close(connection, preparedStatement);
+      }
+
       throw exception;
 
     }
@@ -400,16 +1119,22 @@ public class OracleDatabaseOperation implements DatabaseOperation {
     validator.verifyArguments(query);
     validator.verifyArguments(columnValues);
 
-    List<T> entities = new ArrayList<>();
-    ReadItem<T> readItem = selectRow(query, columnValues, clazz);
-    T typeObj = null;
-    while ((typeObj = readItem.nextItem()) != null) {
-      entities.add(typeObj);
-    }
+    return readAll(selectRow(query, columnValues, clazz));
+  }
 
-    readItem.close();
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectRows(java.lang.String,
+   * java.util.List, java.lang.Class, int)
+   */
+  @Override
+  public <T> List<T> selectRows(String query, List<Object> columnValues, Class<T> clazz, int fetchSize) throws SQLException {
+    logger.log(Level.FINEST, QUERY_LOG, query);
+    validator.verifyArguments(query);
+    validator.verifyArguments(columnValues);
 
-    return entities;
+    return readAll(selectRow(query, columnValues, clazz, fetchSize));
   }
 
   /*
@@ -425,15 +1150,248 @@ public class OracleDatabaseOperation implements DatabaseOperation {
     validator.verifyArguments(query);
     validator.verifyArguments(columnValues);
 
-    List<T> entities = new ArrayList<>();
-    ReadItem<T> readItem = selectRow(query, columnValues, mapper);
+    return readAll(selectRow(query, columnValues, mapper));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectRows(java.lang.String,
+   * java.util.List, de.hock.jdbc.RowMapper, int)
+   */
+  @Override
+  public <T> List<T> selectRows(String query, List<Object> columnValues, RowMapper<T> mapper, int fetchSize) throws SQLException {
+    logger.log(Level.FINEST, QUERY_LOG, query);
+    validator.verifyArguments(query);
+    validator.verifyArguments(columnValues);
+
+    return readAll(selectRow(query, columnValues, mapper, fetchSize));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectStream(java.lang.String,
+   * java.util.List, java.lang.Class)
+   */
+  @Override
+  public <T> Stream<T> selectStream(String query, List<Object> columnValues, Class<T> clazz) throws SQLException {
+    return ReadItemSpliterator.stream(selectRow(query, columnValues, clazz));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectStream(java.lang.String,
+   * java.util.List, de.hock.jdbc.RowMapper)
+   */
+  @Override
+  public <T> Stream<T> selectStream(String query, List<Object> columnValues, RowMapper<T> mapper) throws SQLException {
+    return ReadItemSpliterator.stream(selectRow(query, columnValues, mapper));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectParallel(java.lang.String,
+   * java.util.List, java.util.List, java.lang.Class, boolean)
+   */
+  @Override
+  public <T> Stream<T> selectParallel(String query, List<Object> columnValues, List<QuerySlice> slices, Class<T> clazz, boolean ordered) {
+    validator.verifyArguments(clazz);
+
+    // ohne Prefetch, die Teile werden schon parallel gelesen
+    return selectParallel(query, columnValues, slices, (sliceQuery, sliceValues) -> {
+      FetchSizeAdvisor advisor = newFetchSizeAdvisor();
+      return selectRow(sliceQuery, sliceValues, clazz, Objects.isNull(advisor) ? fetchSize : advisor.getFetchSize(), advisor);
+    }, ordered);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectParallel(java.lang.String,
+   * java.util.List, java.util.List, java.util.function.Supplier, boolean)
+   */
+  @Override
+  public <T> Stream<T> selectParallel(String query, List<Object> columnValues, List<QuerySlice> slices, Supplier<? extends RowMapper<T>> mapperFactory,
+      boolean ordered) {
+    validator.verifyArguments(mapperFactory);
+
+    return selectParallel(query, columnValues, slices, (sliceQuery, sliceValues) -> {
+      FetchSizeAdvisor advisor = newFetchSizeAdvisor();
+      return selectRow(sliceQuery, sliceValues, mapperFactory.get(), Objects.isNull(advisor) ? fetchSize : advisor.getFetchSize(), advisor);
+    }, ordered);
+  }
+
+  private <T> Stream<T> selectParallel(String query, List<Object> columnValues, List<QuerySlice> slices, ParallelReader.SliceOpener<T> opener,
+      boolean ordered) {
+    validator.verifyArguments(query);
+    validator.verifyArguments(columnValues);
+    validator.verifyListArguments(slices);
+
+    int threads = Math.max(1, Math.min(slices.size(), oraclePoolConnection.getMaxPoolSize()));
+    logger.log(Level.FINE, "Paralleles Select in {0} Teilen mit {1} Threads: {2}", new Object[] { slices.size(), threads, query });
+    return ParallelReader.stream(query, columnValues, slices, opener, threads, ordered);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectPublisher(java.lang.String,
+   * java.util.List, java.lang.Class, java.util.concurrent.Executor)
+   */
+  @Override
+  public <T> ReactiveFlow.Publisher<T> selectPublisher(String query, List<Object> columnValues, Class<T> clazz, Executor executor) {
+    validator.verifyArguments(clazz);
+
+    // ohne Prefetch, gelesen wird nur auf Anforderung
+    return new SelectPublisher<>(() -> {
+      FetchSizeAdvisor advisor = newFetchSizeAdvisor();
+      return selectRow(query, columnValues, clazz, Objects.isNull(advisor) ? fetchSize : advisor.getFetchSize(), advisor);
+    }, executor);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectPublisher(java.lang.String,
+   * java.util.List, de.hock.jdbc.RowMapper, java.util.concurrent.Executor)
+   */
+  @Override
+  public <T> ReactiveFlow.Publisher<T> selectPublisher(String query, List<Object> columnValues, RowMapper<T> mapper, Executor executor) {
+    validator.verifyArguments(mapper);
+
+    return new SelectPublisher<>(() -> {
+      FetchSizeAdvisor advisor = newFetchSizeAdvisor();
+      return selectRow(query, columnValues, mapper, Objects.isNull(advisor) ? fetchSize : advisor.getFetchSize(), advisor);
+    }, executor);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectPage(java.lang.String,
+   * java.util.List, java.util.List, java.lang.String, int,
+   * de.hock.jdbc.RowMapper)
+   */
+  @Override
+  public <T> KeysetPage<T> selectPage(String query, List<Object> columnValues, List<String> keyColumns, String cursorToken, int pageSize,
+      RowMapper<T> mapper) throws SQLException {
+    validator.verifyArguments(mapper);
+    KeysetCursor cursor = resolveCursor(keyColumns, cursorToken, pageSize);
+
+    KeyCapturingMapper<T> capturingMapper = new KeyCapturingMapper<>(mapper, keyColumns);
+    List<T> rows = readAll(selectRow(createPageQuery(query, keyColumns, cursor), getPageValues(columnValues, cursor, pageSize), capturingMapper,
+        pageSize));
 
-    T typeObj = null;
-    while ((typeObj = readItem.nextItem()) != null) {
-      entities.add(typeObj);
+    return new KeysetPage<>(rows, rows.size() < pageSize ? null : new KeysetCursor(keyColumns, capturingMapper.lastKeyValues));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#selectPage(java.lang.String,
+   * java.util.List, java.util.List, java.lang.String, int, java.lang.Class)
+   */
+  @Override
+  public <T> KeysetPage<T> selectPage(String query, List<Object> columnValues, List<String> keyColumns, String cursorToken, int pageSize, Class<T> clazz)
+      throws SQLException {
+    validator.verifyArguments(clazz);
+    KeysetCursor cursor = resolveCursor(keyColumns, cursorToken, pageSize);
+
+    Map<String, Field> fields = metadataRegistry.getMetadata(clazz).getFields();
+    List<Field> keyFields = new ArrayList<>(keyColumns.size());
+    for (String keyColumn : keyColumns) {
+      Field field = fields.containsKey(keyColumn) ? fields.get(keyColumn) : fields.get(keyColumn.toUpperCase());
+      validator.verifyArguments(field, String.format("Die Entityklasse %s hat kein Feld für die Schlüsselspalte %s", clazz.getName(), keyColumn));
+      keyFields.add(field);
     }
 
-    readItem.close();
+    List<T> rows = readAll(selectRow(createPageQuery(query, keyColumns, cursor), getPageValues(columnValues, cursor, pageSize), clazz, pageSize));
+    if (rows.size() < pageSize) {
+      return new KeysetPage<>(rows, null);
+    }
+
+    T lastRow = rows.get(rows.size() - 1);
+    List<Object> keyValues = new ArrayList<>(keyFields.size());
+    for (Field field : keyFields) {
+      try {
+        keyValues.add(field.get(lastRow));
+      } catch (IllegalAccessException ex) {
+        throw new RuntimeException(String.format("Schlüsselfeld %s ist nicht lesbar.", field.getName()), ex);
+      }
+    }
+    return new KeysetPage<>(rows, new KeysetCursor(keyColumns, keyValues));
+  }
+
+  private KeysetCursor resolveCursor(List<String> keyColumns, String cursorToken, int pageSize) {
+    validator.verifyListArguments(keyColumns);
+    verifyFetchSize(pageSize);
+    if (Objects.isNull(cursorToken)) {
+      return null;
+    }
+
+    KeysetCursor cursor = KeysetCursor.fromToken(cursorToken);
+    if (!cursor.getKeyColumns().equals(keyColumns)) {
+      throw new IllegalArgumentException(String.format("Das Cursor-Token gehört zu den Schlüsselspalten %s, nicht zu %s", cursor.getKeyColumns(), keyColumns));
+    }
+    return cursor;
+  }
+
+  /**
+   * Erzeugt das Query einer Seite:
+   *
+   * <pre>
+   * SELECT * FROM (query) q WHERE (K1 &gt; ?) OR (K1 = ? AND K2 &gt; ?)
+   * ORDER BY K1, K2 FETCH FIRST ? ROWS ONLY
+   * </pre>
+   *
+   * Die erste Seite hat keine WHERE-Bedingung.
+   */
+  private String createPageQuery(String query, List<String> keyColumns, KeysetCursor cursor) {
+    boolean afterCursor = Objects.nonNull(cursor);
+    return sqlCache.get(Arrays.asList("PAGE", query, String.join(",", keyColumns), afterCursor), () -> {
+      StringBuilder sb = new StringBuilder();
+      sb.append("SELECT * FROM (").append(query).append(") q");
+      if (afterCursor) {
+        StringJoiner keyset = new StringJoiner(" OR ", " WHERE ", "");
+        for (int index = 0; index < keyColumns.size(); index++) {
+          StringJoiner term = new StringJoiner(" AND ", "(", ")");
+          keyColumns.subList(0, index).forEach(column -> term.add(column + " = ?"));
+          term.add(keyColumns.get(index) + " > ?");
+          keyset.add(term.toString());
+        }
+        sb.append(keyset);
+      }
+      sb.append(" ORDER BY ").append(String.join(", ", keyColumns)).append(" FETCH FIRST ? ROWS ONLY");
+      return sb.toString();
+    });
+  }
+
+  private static List<Object> getPageValues(List<Object> columnValues, KeysetCursor cursor, int pageSize) {
+    List<Object> values = new ArrayList<>(columnValues);
+    if (Objects.nonNull(cursor)) {
+      List<Object> keyValues = cursor.getKeyValues();
+      for (int index = 0; index < keyValues.size(); index++) {
+        values.addAll(keyValues.subList(0, index + 1));
+      }
+    }
+    values.add(pageSize);
+    return values;
+  }
+
+  /**
+   * Liest alle Zeilen in eine Liste und schlie&szlig;t das {@link ReadItem}.
+   */
+  private static <T> List<T> readAll(ReadItem<T> readItem) throws SQLException {
+    List<T> entities = new ArrayList<>();
+    try (ReadItem<T> items = readItem) {
+      T typeObj = null;
+      while ((typeObj = items.nextItem()) != null) {
+        entities.add(typeObj);
+      }
+    }
 
     return entities;
   }
@@ -489,7 +1447,14 @@ public class OracleDatabaseOperation implements DatabaseOperation {
    *          ein {@link ConnectionManager}-Objekt
    */
   public void setConnectionManager(ConnectionManager connectionManager) {
+    validator.verifyArguments(connectionManager);
+
+    connectionManager.setDatasource(oraclePoolConnection);
+    this.connectionManager = connectionManager;
+  }
 
+  public ConnectionManager getConnectionManager() {
+    return connectionManager;
   }
 
   /*
@@ -538,6 +1503,11 @@ public class OracleDatabaseOperation implements DatabaseOperation {
 
   }
 
+  @Override
+  public boolean isTransactionActive() {
+    return connectionManager.isTransactionActive();
+  }
+
   /**
    * Diese Hilfe-Method versucht ConnectionManager down-cast zu
    * TransactionManager. Wenn mann w&auml;hrend DatenbankOpetaion Inject der
@@ -549,6 +1519,9 @@ public class OracleDatabaseOperation implements DatabaseOperation {
    * @throws TransactionException
    */
   private Transactional getTransactionManager() {
+    if (connectionManager.istTransactionalConnectionManager() && connectionManager instanceof Transactional) {
+      return (Transactional) connectionManager;
+    }
 
     throw new RuntimeException(
         "Diese ConnectionManager unterstützt keine Transaktion. Für transaktionalen Datenbankoperation sollte mann den DatenbankOpeation-Objekt mit @Transactionl Annotation vorsehen.");
@@ -565,14 +1538,87 @@ public class OracleDatabaseOperation implements DatabaseOperation {
   public int update(String query, List<Object> columnValues) throws SQLException {
     logger.log(Level.FINEST, "Update query {0}", query);
 
-    int anzahl = batchExecute(query, Arrays.asList(columnValues));
+    int anzahl = batchExecute(query, Arrays.asList(columnValues).iterator(), null);
 
     logger.log(Level.FINE, "{0} Datensatz wurde aktualisiert.", anzahl);
     return anzahl;
   }
 
+  /**
+   * Mit {@link ConfigProperty#INSERT_PARALLELISM} gr&ouml;&szlig;er 1 wird
+   * parallel &uuml;ber mehrere Connections mit eigenen Commits geschrieben. In
+   * einer Transaktion wird seriell auf ihrer Connection geschrieben.
+   */
   @Override
   public void batchInsert(String tableName, List<String> columns, List<Map<String, String>> rows) throws SQLException {
+    if (insertParallelism > 1 && !rows.isEmpty() && !connectionManager.isTransactionActive()) {
+      Map<String, String> metainfo = getTableInfo(tableName, columns);
+      String query = createInsertQuery(tableName, columns);
+      logger.log(Level.FINE, "Insert Query {0}", query);
+
+      List<List<Object>> rowValues = rows.stream().map(row -> getRowValue(columns, row, metainfo)).collect(Collectors.toList());
+      BulkInsertResult result = parallelBatchInsert(query, rowValues, insertParallelism);
+      throwOnFailure(result, tableName);
+      logger.log(Level.INFO, "{0} rows has been written into {1}", new Object[] { result.getUpdateCount(), tableName });
+    } else {
+      batchInsert(tableName, columns, rows.iterator());
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#batchInsert(java.lang.String,
+   * java.util.List, java.util.Iterator)
+   */
+  @Override
+  public int batchInsert(String tableName, List<String> columns, Iterator<? extends Map<String, String>> rows) throws SQLException {
+    return insertTableRows(tableName, columns, rows, null);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.DatabaseOperation#resumableBatchInsert(java.lang.String,
+   * java.lang.String, java.util.List, java.util.Iterator)
+   */
+  @Override
+  public int resumableBatchInsert(String loadId, String tableName, List<String> columns, Iterator<? extends Map<String, String>> rows)
+      throws SQLException {
+    validator.verifyArguments(loadId);
+
+    return insertTableRows(tableName, columns, rows, loadId);
+  }
+
+  private int insertTableRows(String tableName, List<String> columns, Iterator<? extends Map<String, String>> rows, String loadId) throws SQLException {
+    Map<String, String> metainfo = getTableInfo(tableName, columns);
+
+    final String query = createInsertQuery(tableName, columns);
+    logger.log(Level.FINE, "Insert Query {0}", query);
+
+    // Die Werte werden pro Zeile erst beim Schreiben formatiert
+    Iterator<List<Object>> rowValues = new Iterator<List<Object>>() {
+      @Override
+      public boolean hasNext() {
+        return rows.hasNext();
+      }
+
+      @Override
+      public List<Object> next() {
+        return getRowValue(columns, rows.next(), metainfo);
+      }
+    };
+
+    int insertedRows = batchExecute(query, rowValues, loadId);
+    logger.log(Level.INFO, "{0} rows has been written into {1}", new Object[] { insertedRows, tableName });
+    return insertedRows;
+  }
+
+  /**
+   * Liest die Spalten-Datentypen der Tabelle einmal und pr&uuml;ft, ob alle
+   * <code>columns</code> in der Tabelle existieren.
+   */
+  private Map<String, String> getTableInfo(String tableName, List<String> columns) throws SQLException {
     if (Objects.isNull(chacheTableInfo.get(tableName))) {
       List<Map<String, String>> map = selectRows(SELECT_META_INFORMATION, Arrays.asList(tableName), new TableSchemaMapper());
       Map<String, String> columnInfo = new HashMap<>();
@@ -586,28 +1632,39 @@ public class OracleDatabaseOperation implements DatabaseOperation {
       throw new IllegalArgumentException(String.format("Column in database: %s, given: %s are different.", inDb, columns));
     }
 
-    final String query = createInsertQuery(tableName, columns);
-    logger.log(Level.FINE, "Insert Query {0}", query);
-    int insertedRows = batchExecute(query, getRowValues(columns, rows, chacheTableInfo.get(tableName)));
-    logger.log(Level.INFO, "{0} rows has been written into {1}", new Object[] { insertedRows, tableName });
+    return rowInfo;
   }
 
-  private List<List<Object>> getRowValues(List<String> columns, List<Map<String, String>> rows, Map<String, String> metainfo) {
-    List<List<Object>> listOfRow = new ArrayList<>();
+  /**
+   * Die erfolgreichen Partitionen bleiben committed, f&uuml;r die
+   * fehlgeschlagenen wird ein {@link SQLException} geworfen.
+   */
+  private void throwOnFailure(BulkInsertResult result, String tableName) throws SQLException {
+    if (result.isSuccessful()) {
+      return;
+    }
+
+    SQLException exception = new SQLException(String.format("%d von %d Partitionen für %s sind fehlgeschlagen: %s", result.getFailures().size(),
+        result.getPartitionCount(), tableName, result.getFailures()), result.getFailures().get(0).getCause());
+    result.getFailures().stream().skip(1).forEach(failure -> exception.addSuppressed(failure.getCause()));
+    throw exception;
+  }
 
-    for (Map<String, String> row : rows) {
-      List<Object> values = new ArrayList<>();
-      for (String column : columns) {
-        String columnValue = row.get(column);
-        values.add(Objects.isNull(columnValue) ? null : formatter.getFormatedValue(metainfo.get(column), columnValue));
-      }
-      listOfRow.add(values);
+  private List<Object> getRowValue(List<String> columns, Map<String, String> row, Map<String, String> metainfo) {
+    List<Object> values = new ArrayList<>(columns.size());
+    for (String column : columns) {
+      String columnValue = row.get(column);
+      values.add(Objects.isNull(columnValue) ? null : formatter.getFormatedValue(metainfo.get(column), columnValue));
     }
 
-    return listOfRow;
+    return values;
   }
 
   private String createInsertQuery(String tableName, List<String> columns) {
+    return sqlCache.get(Arrays.asList("INSERT", tableName, String.join(",", columns)), () -> buildInsertQuery(tableName, columns));
+  }
+
+  private static String buildInsertQuery(String tableName, List<String> columns) {
     StringBuilder sb = new StringBuilder();
     sb.append("INSERT INTO ");
     sb.append(tableName).append(" ");
@@ -616,6 +1673,76 @@ public class OracleDatabaseOperation implements DatabaseOperation {
     return sb.toString();
   }
 
+  /**
+   * Merkt sich die Schl&uuml;sselwerte der zuletzt gemappten Zeile.
+   * Datum und Zahlen werden als {@link java.time.LocalDateTime} bzw.
+   * {@link java.math.BigDecimal} gelesen, damit sie serialisierbar und wieder bindbar
+   * sind.
+   */
+  private static final class KeyCapturingMapper<T> implements RowMapper<T> {
+
+    private final RowMapper<T> mapper;
+    private final List<String> keyColumns;
+    private int[] keyIndexes;
+    private int[] keyTypes;
+    private List<Object> lastKeyValues;
+
+    private KeyCapturingMapper(RowMapper<T> mapper, List<String> keyColumns) {
+      this.mapper = mapper;
+      this.keyColumns = keyColumns;
+    }
+
+    @Override
+    public T mapRow(ResultSet resultSet) throws SQLException {
+      if (Objects.isNull(keyIndexes)) {
+        keyIndexes = new int[keyColumns.size()];
+        keyTypes = new int[keyColumns.size()];
+        for (int index = 0; index < keyIndexes.length; index++) {
+          keyIndexes[index] = resultSet.findColumn(keyColumns.get(index));
+          keyTypes[index] = resultSet.getMetaData().getColumnType(keyIndexes[index]);
+        }
+      }
+
+      List<Object> keyValues = new ArrayList<>(keyIndexes.length);
+      for (int index = 0; index < keyIndexes.length; index++) {
+        keyValues.add(readKey(resultSet, keyIndexes[index], keyTypes[index]));
+      }
+      lastKeyValues = keyValues;
+      return mapper.mapRow(resultSet);
+    }
+
+    private static Object readKey(ResultSet resultSet, int column, int sqlType) throws SQLException {
+      switch (sqlType) {
+      case Types.DATE:
+      case Types.TIMESTAMP:
+        Timestamp timestamp = resultSet.getTimestamp(column);
+        return Objects.isNull(timestamp) ? null : timestamp.toLocalDateTime();
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+      case Types.INTEGER:
+      case Types.BIGINT:
+      case Types.SMALLINT:
+      case Types.TINYINT:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+      case Types.REAL:
+        return resultSet.getBigDecimal(column);
+      default:
+        return resultSet.getString(column);
+      }
+    }
+
+    @Override
+    public Map<String, Integer> getColumnNames() {
+      return mapper.getColumnNames();
+    }
+
+    @Override
+    public String getTableName() {
+      return mapper.getTableName();
+    }
+  }
+
   public class TableSchemaMapper implements RowMapper<Map<String, String>> {
     private static final String COLUMN_NAME_KEY = "COLUMN_NAME";
     private static final String DATA_TYPE_KEY = "DATA_TYPE";
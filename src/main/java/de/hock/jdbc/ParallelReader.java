@@ -0,0 +1,201 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Liest die Teile eines Queries ({@link QuerySlice}) parallel, jeden Teil auf
+ * einer eigenen Connection, und liefert die Zeilen als einen Stream.
+ *
+ * Ungeordnet landen alle Zeilen in einer gemeinsamen Queue, in der
+ * Reihenfolge, in der sie gelesen werden. Geordnet hat jeder Teil eine eigene
+ * Queue und der Stream liefert die Teile nacheinander; sp&auml;tere Teile
+ * lesen bis zur Kapazit&auml;t ihrer Queue vor. Die Queues sind begrenzt, der
+ * Speicherbedarf h&auml;ngt also nicht von der Gr&ouml;&szlig;e des Ergebnisses ab.
+ *
+ * Schl&auml;gt ein Teil fehl oder wird der Stream geschlossen, werden alle
+ * Teile abgebrochen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+final class ParallelReader<T> implements Iterator<T> {
+
+  private static final Logger logger = Logger.getLogger(ParallelReader.class.getSimpleName());
+
+  /** Maximale Anzahl gelesener, noch nicht gelieferter Zeilen pro Queue. */
+  static final int QUEUE_CAPACITY = 1000;
+
+  /** Markiert das Ende eines Teils in der Queue. */
+  private static final Object END_OF_SLICE = new Object();
+
+  /**
+   * &Ouml;ffnet das {@link ReadItem} eines Teils.
+   */
+  @FunctionalInterface
+  interface SliceOpener<T> {
+    ReadItem<T> open(String query, List<Object> columnValues) throws SQLException;
+  }
+
+  private final List<BlockingQueue<Object>> queues;
+  private final ExecutorService executor;
+  private final int sliceCount;
+
+  private volatile boolean cancelled;
+  private int currentQueue;
+  private int finishedSlices;
+  private Object nextRow;
+
+  private ParallelReader(String query, List<Object> columnValues, List<QuerySlice> slices, SliceOpener<T> opener, int threads, boolean ordered) {
+    this.sliceCount = slices.size();
+    this.queues = new ArrayList<>(ordered ? sliceCount : 1);
+    if (ordered) {
+      slices.forEach(slice -> queues.add(new ArrayBlockingQueue<>(QUEUE_CAPACITY)));
+    } else {
+      queues.add(new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+    }
+
+    executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+      Thread thread = new Thread(runnable, "parallel-reader");
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (int index = 0; index < sliceCount; index++) {
+      QuerySlice slice = slices.get(index);
+      BlockingQueue<Object> queue = queues.get(ordered ? index : 0);
+      executor.execute(() -> readSlice(slice.apply(query), slice.apply(columnValues), opener, queue));
+    }
+    executor.shutdown();
+  }
+
+  /**
+   * Startet das Lesen aller Teile und liefert die Zeilen als sequentiellen
+   * Stream, der beim Schlie&szlig;en alle Teile abbricht.
+   *
+   * @param threads
+   *          Anzahl paralleler Teile bzw. Connections
+   * @param ordered
+   *          <code>true</code>, um die Zeilen in der Reihenfolge der Teile zu
+   *          liefern
+   */
+  static <T> Stream<T> stream(String query, List<Object> columnValues, List<QuerySlice> slices, SliceOpener<T> opener, int threads,
+      boolean ordered) {
+    ParallelReader<T> reader = new ParallelReader<>(query, columnValues, slices, opener, threads, ordered);
+    Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(reader, ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(reader::cancel);
+  }
+
+  private void readSlice(String query, List<Object> columnValues, SliceOpener<T> opener, BlockingQueue<Object> queue) {
+    Object last = END_OF_SLICE;
+    try (ReadItem<T> readItem = opener.open(query, columnValues)) {
+      T row;
+      while (!cancelled && (row = readItem.nextItem()) != null) {
+        queue.put(row);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (SQLException | RuntimeException | Error ex) {
+      // auch Errors gehen an den Leser, sonst wartet er ewig auf das Ende des Teils
+      if (cancelled) {
+        // Abbruch durch den Leser, kein Fehler des Teils
+        return;
+      }
+      logger.log(Level.SEVERE, String.format("Lesen von %s ist fehlgeschlagen.", query), ex);
+      last = new SliceFailure(query, ex);
+    }
+
+    try {
+      if (!cancelled) {
+        queue.put(last);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (nextRow != null) {
+      return true;
+    }
+
+    try {
+      while (finishedSlices < sliceCount) {
+        Object element = queues.get(currentQueue).take();
+        if (element == END_OF_SLICE) {
+          finishedSlices++;
+          if (queues.size() > 1) {
+            currentQueue++;
+          }
+        } else if (element instanceof SliceFailure) {
+          cancel();
+          SliceFailure failure = (SliceFailure) element;
+          throw new RuntimeException(String.format("Lesen von %s ist fehlgeschlagen.", failure.query), failure.cause);
+        } else {
+          nextRow = element;
+          return true;
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new RuntimeException("Paralleles Lesen wurde unterbrochen.", ex);
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T row = (T) nextRow;
+    nextRow = null;
+    return row;
+  }
+
+  /**
+   * Bricht alle Teile ab. Wartende Teile werden unterbrochen und schlie&szlig;en
+   * ihre Connection.
+   */
+  private void cancel() {
+    if (!cancelled) {
+      cancelled = true;
+      executor.shutdownNow();
+      queues.forEach(BlockingQueue::clear);
+    }
+  }
+
+  /**
+   * Fehler eines Teils, wird &uuml;ber die Queue an den Leser gegeben.
+   */
+  private static final class SliceFailure {
+
+    private final String query;
+    private final Throwable cause;
+
+    private SliceFailure(String query, Throwable cause) {
+      this.query = query;
+      this.cause = cause;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Setzt die Platzhalter eines {@link PreparedStatement} aus einem
+ * Typ-Objekt.
+ *
+ * @param <T>
+ *          Typ-Objekt, dessen Werte gebunden werden.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+@FunctionalInterface
+public interface ParameterBinder<T> {
+
+  /**
+   * Setzt alle Platzhalter ab Index 1 mit den Werten von <code>value</code>.
+   *
+   * @param preparedStatement
+   *          ein {@link PreparedStatement}-Objekt
+   * @param value
+   *          ein Typ-Objekt
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  public void bind(PreparedStatement preparedStatement, T value) throws SQLException;
+
+}
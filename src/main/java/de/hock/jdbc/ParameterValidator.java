@@ -162,4 +162,24 @@ public class ParameterValidator {
       throw new IllegalArgumentException("Query liste hat ein oder mehrere leer Query. Liste darf keine null oder leer Query haben!");
     }
   }
+
+  /**
+   * Diese Methode validiert, ob der kanonische Konstruktor einen Parameter
+   * passend zu jeder column hat.
+   *
+   * @param columns
+   *          ein liste mit column name
+   * @param parameters
+   *          ein Map mit Parameter-Position pro column name
+   * @param name
+   *          name des Klasse
+   */
+  public void verifyConstructorParameters(List<String> columns, Map<String, Integer> parameters, String name) {
+    BinaryOperator<String> accumulator = (result, columnName) -> result.isEmpty() ? columnName : String.join(", ", result, columnName);
+    String missingColumnNames = columns.stream().filter(columnName -> verifyNull.test(parameters.get(columnName))).reduce("", accumulator);
+
+    if (verifyEmpty.negate().test(missingColumnNames)) {
+      throw new IllegalArgumentException(String.format("Der Konstruktor von %s hat keine passende Parameter für %s", name, missingColumnNames));
+    }
+  }
 }
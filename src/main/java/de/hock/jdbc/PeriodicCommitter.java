@@ -0,0 +1,104 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Committed eine Connection nach jeweils <code>commitInterval</code> Zeilen
+ * und speichert danach den Offset im {@link CheckpointStore}. Commits liegen
+ * immer auf einer Batch-Grenze, das Intervall wird also auf die n&auml;chste
+ * Batch-Grenze aufgerundet.
+ *
+ * Der Checkpoint wird nach dem Commit geschrieben. Bricht der Prozess
+ * dazwischen ab, wird beim Neustart h&ouml;chstens das letzte Intervall
+ * wiederholt. Nach dem letzten Commit wird der Checkpoint entfernt.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+final class PeriodicCommitter {
+
+  private static final Logger logger = Logger.getLogger(PeriodicCommitter.class.getSimpleName());
+
+  private final Connection connection;
+  private final ConnectionManager connectionManager;
+  private final int commitInterval;
+  private final CheckpointStore checkpointStore;
+  private final String loadId;
+
+  private long committedOffset;
+  private long pendingRows;
+
+  /**
+   * @param connection
+   *          Connection mit ausgeschaltetem Auto-Commit
+   * @param connectionManager
+   *          committed die Connection, in einer Transaktion erst an deren
+   *          Ende
+   * @param commitInterval
+   *          Zeilen pro Commit, 0 f&uuml;r einen Commit am Ende
+   * @param checkpointStore
+   *          Checkpoint-Speicher oder <code>null</code>
+   * @param loadId
+   *          Id des Ladevorgangs oder <code>null</code> ohne Checkpoint
+   */
+  PeriodicCommitter(Connection connection, ConnectionManager connectionManager, int commitInterval, CheckpointStore checkpointStore, String loadId) {
+    this.connection = connection;
+    this.connectionManager = connectionManager;
+    this.commitInterval = commitInterval;
+    this.checkpointStore = Objects.isNull(loadId) ? null : checkpointStore;
+    this.loadId = loadId;
+    this.committedOffset = isCheckpointed() ? checkpointStore.getCommittedOffset(loadId) : 0;
+  }
+
+  private boolean isCheckpointed() {
+    return Objects.nonNull(checkpointStore);
+  }
+
+  /**
+   * @return Anzahl Zeilen, die bei einem fr&uuml;heren Lauf bereits committed
+   *         wurden.
+   */
+  long getCommittedOffset() {
+    return committedOffset;
+  }
+
+  /**
+   * Meldet einen ausgef&uuml;hrten Batch, committed wenn das Intervall erreicht
+   * ist.
+   */
+  void afterBatch(int rows) throws SQLException {
+    pendingRows += rows;
+    if (commitInterval > 0 && pendingRows >= commitInterval) {
+      commit(false);
+    }
+  }
+
+  /**
+   * Committed die restlichen Zeilen und entfernt den Checkpoint, der
+   * n&auml;chste Lauf mit derselben Load-Id beginnt wieder bei 0.
+   */
+  void complete() throws SQLException {
+    commit(true);
+  }
+
+  private void commit(boolean completed) throws SQLException {
+    connectionManager.commit(connection);
+    committedOffset += pendingRows;
+    pendingRows = 0;
+
+    if (isCheckpointed()) {
+      if (completed) {
+        checkpointStore.clear(loadId);
+      } else {
+        checkpointStore.saveCommittedOffset(loadId, committedOffset);
+      }
+    }
+    logger.log(Level.FINEST, "Commit {0} bei Offset {1}", new Object[] { Objects.toString(loadId, ""), committedOffset });
+  }
+}
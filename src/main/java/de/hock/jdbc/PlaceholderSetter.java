@@ -1,11 +1,10 @@
 package de.hock.jdbc;
 
-import java.lang.reflect.Field;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * Eine Hilfe-Klasse, die bitet die M&ouml;glichkeit die Platzhalter in der
@@ -20,27 +19,32 @@ public class PlaceholderSetter {
   private static ParameterValidator validator = new ParameterValidator();
 
   /**
+   * Ersetze Platzhalter mit den Feldwerten des Typ-Objekts. Die Werte werden
+   * &uuml;ber die Getter-Funktionen aus {@link EntityMetadata} gelesen, in der
+   * Reihenfolge von {@link EntityMetadata#getColumnNames()}, und mit dem
+   * Codec des Feldtyps gesetzt.
    *
    * @param preparedStatement
-   * @param columns
+   * @param metadata
    * @param type
-   * @throws EntitityWrapperException
    * @throws SQLException
    */
-  public <T> void setPlaceholder(PreparedStatement preparedStatement, Collection<String> columns, Map<String, Field> fields, T type)
-      throws IllegalAccessException, SQLException {
+  public <T> void setPlaceholder(PreparedStatement preparedStatement, EntityMetadata<?> metadata, T type) throws SQLException {
     validator.verifyArguments(preparedStatement);
-    validator.verifyArguments(columns);
-    validator.verifyArguments(fields);
+    validator.verifyArguments(metadata);
     validator.verifyArguments(type);
 
-    int placeholderIndex = 0;
+    List<Function<Object, Object>> getters = metadata.getColumnGetters();
+    List<ColumnCodec> codecs = metadata.getColumnCodecs();
 
-    for (String column : columns) {
-      Field field = fields.get(column);
-      field.setAccessible(true);
-      Object spaltewert = field.get(type);
-      typeMapper.setObjectValue(preparedStatement, ++placeholderIndex, spaltewert);
+    for (int index = 0; index < getters.size(); index++) {
+      Object spaltewert = getters.get(index).apply(type);
+      ColumnCodec codec = codecs.get(index);
+      if (Objects.nonNull(codec)) {
+        codec.write(preparedStatement, index + 1, spaltewert);
+      } else {
+        typeMapper.setObjectValue(preparedStatement, index + 1, spaltewert);
+      }
     }
   }
 
@@ -59,4 +63,4 @@ public class PlaceholderSetter {
       typeMapper.setObjectValue(preparedStatement, ++placeholderIndex, value);
     }
   }
-}
\ No newline at end of file
+}
\ No newline at end of file
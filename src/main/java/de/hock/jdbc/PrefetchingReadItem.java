@@ -0,0 +1,177 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link ReadItem}, das ein anderes {@link ReadItem} in einem
+ * Hintergrund-Thread vorausliest. Der Thread f&uuml;llt eine begrenzte Queue
+ * mit gemappten Zeilen, w&auml;hrend der Aufrufer die vorherigen Zeilen
+ * verarbeitet; Roundtrips zur Datenbank und Verarbeitung laufen so
+ * &uuml;berlappend. Ist die Queue voll, wartet der Thread, es sind also nie
+ * mehr als <code>capacity</code> Zeilen im Speicher.
+ *
+ * Ein Fehler beim Lesen wird beim n&auml;chsten {@link #nextItem()} an den
+ * Aufrufer weitergegeben. {@link #close()} bricht das Vorauslesen ab und
+ * wartet, bis der Thread das gelesene {@link ReadItem} geschlossen hat. Das
+ * gelesene {@link ReadItem} wird nur vom Hintergrund-Thread verwendet.
+ *
+ * Die Zeilen d&uuml;rfen keine Streams aus der ResultSet enthalten
+ * (<code>getBinaryStream</code>, <code>getCharacterStream</code>), diese
+ * sind beim Aufrufer schon ung&uuml;ltig.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class PrefetchingReadItem<T> implements ReadItem<T> {
+
+  private static final Logger logger = Logger.getLogger(PrefetchingReadItem.class.getSimpleName());
+
+  /** Markiert das Ende der Zeilen in der Queue. */
+  private static final Object END_OF_ROWS = new Object();
+
+  private final BlockingQueue<Object> queue;
+  private final Thread prefetcher;
+
+  private volatile boolean cancelled;
+  private ReadFailure failure;
+  private boolean finished;
+
+  /**
+   * Startet das Vorauslesen.
+   *
+   * @param source
+   *          das zu lesende {@link ReadItem}
+   * @param capacity
+   *          maximale Anzahl vorausgelesener Zeilen, gr&ouml;&szlig;er als 0
+   */
+  public PrefetchingReadItem(ReadItem<T> source, int capacity) {
+    Objects.requireNonNull(source, "source");
+    if (capacity < 1) {
+      throw new IllegalArgumentException(String.format("Ungültige Prefetch-Kapazität %d", capacity));
+    }
+    this.queue = new ArrayBlockingQueue<>(capacity);
+
+    prefetcher = new Thread(() -> prefetch(source), "prefetch-reader");
+    prefetcher.setDaemon(true);
+    prefetcher.start();
+  }
+
+  private void prefetch(ReadItem<T> source) {
+    Object last = END_OF_ROWS;
+    try {
+      T row;
+      while (!cancelled && (row = source.nextItem()) != null) {
+        queue.put(row);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (SQLException | RuntimeException | Error ex) {
+      // auch Errors gehen an den Aufrufer, sonst wartet er ewig auf das Ende
+      if (!cancelled) {
+        logger.log(Level.FINE, "Vorauslesen ist fehlgeschlagen.", ex);
+        last = new ReadFailure(ex);
+      }
+    } finally {
+      source.close();
+    }
+
+    try {
+      if (!cancelled) {
+        queue.put(last);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.ReadItem#nextItem()
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public T nextItem() throws SQLException {
+    if (Objects.nonNull(failure)) {
+      throw failure.rethrow();
+    }
+    if (finished || cancelled) {
+      return null;
+    }
+
+    Object element;
+    try {
+      element = queue.take();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new RuntimeException("Vorauslesen wurde unterbrochen.", ex);
+    }
+
+    if (element == END_OF_ROWS) {
+      finished = true;
+      return null;
+    }
+    if (element instanceof ReadFailure) {
+      failure = (ReadFailure) element;
+      throw failure.rethrow();
+    }
+    return (T) element;
+  }
+
+  /**
+   * Bricht das Vorauslesen ab und wartet, bis das gelesene {@link ReadItem}
+   * geschlossen ist.
+   */
+  @Override
+  public void close() {
+    if (cancelled) {
+      return;
+    }
+    cancelled = true;
+    queue.clear();
+    prefetcher.interrupt();
+
+    boolean interrupted = false;
+    while (prefetcher.isAlive()) {
+      try {
+        prefetcher.join();
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Fehler beim Vorauslesen, wird &uuml;ber die Queue an den Aufrufer gegeben.
+   */
+  private static final class ReadFailure {
+
+    private final Throwable cause;
+
+    private ReadFailure(Throwable cause) {
+      this.cause = cause;
+    }
+
+    private SQLException rethrow() {
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      return (SQLException) cause;
+    }
+  }
+}
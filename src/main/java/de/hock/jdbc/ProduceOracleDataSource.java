@@ -32,7 +32,7 @@ public class ProduceOracleDataSource {
 
         pds.setConnectionWaitTimeout(10);
         pds.setInactiveConnectionTimeout(3 * 60);
-        pds.setMaxStatements(10);
+        pds.setMaxStatements(ConfigProperty.MAX_STATEMENTS.intValue(properties));
         pds.setValidateConnectionOnBorrow(true);
 
         pds.setURL((String) properties.get(ConfigProperty.DATABASE_URL.propKey()));
@@ -0,0 +1,131 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ein disjunkter Teil eines Queries f&uuml;r
+ * {@link DatabaseOperation#selectParallel(String, List, List, Class, boolean)}:
+ * eine Bedingung mit eigenen Platzhalterwerten. Das Query des Teils ist
+ * <code>SELECT * FROM (query) q WHERE bedingung</code>.
+ *
+ * Zeilen, f&uuml;r die keine Bedingung zutrifft (z.B. NULL in der
+ * Schl&uuml;sselspalte), werden nicht gelesen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public final class QuerySlice {
+
+  private final String predicate;
+  private final List<Object> parameters;
+
+  /**
+   * @param predicate
+   *          SQL-Bedingung, Spalten &uuml;ber den Alias <code>q</code> oder
+   *          ohne Alias
+   * @param parameters
+   *          Werte f&uuml;r die Platzhalter der Bedingung
+   */
+  public QuerySlice(String predicate, List<Object> parameters) {
+    this.predicate = predicate;
+    this.parameters = Collections.unmodifiableList(new ArrayList<>(parameters));
+  }
+
+  /**
+   * Teilt den Bereich <code>min</code> bis <code>max</code> einer numerischen
+   * Spalte in h&ouml;chstens <code>count</code> gleich breite Teile. Der erste
+   * und letzte Teil sind nach unten bzw. oben offen.
+   */
+  public static List<QuerySlice> range(String column, long min, long max, int count) {
+    verifyCount(count);
+    if (max < min) {
+      throw new IllegalArgumentException(String.format("Ungültiger Bereich %d bis %d", min, max));
+    }
+
+    long width = Math.max(1L, (max - min) / count + 1);
+    int slices = (int) Math.min(count, (max - min) / width + 1);
+    if (slices == 1) {
+      return Collections.singletonList(new QuerySlice("1 = 1", Collections.emptyList()));
+    }
+
+    List<QuerySlice> result = new ArrayList<>(slices);
+    for (int index = 0; index < slices; index++) {
+      long lower = min + index * width;
+      if (index == 0) {
+        result.add(new QuerySlice(column + " < ?", Arrays.asList(lower + width)));
+      } else if (index == slices - 1) {
+        result.add(new QuerySlice(column + " >= ?", Arrays.asList(lower)));
+      } else {
+        result.add(new QuerySlice(column + " >= ? AND " + column + " < ?", Arrays.asList(lower, lower + width)));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Teilt die Zeilen &uuml;ber <code>MOD(ABS(column), count)</code> in
+   * <code>count</code> Teile.
+   */
+  public static List<QuerySlice> modulo(String column, int count) {
+    verifyCount(count);
+
+    List<QuerySlice> result = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      result.add(new QuerySlice("MOD(ABS(" + column + "), ?) = ?", Arrays.asList(count, index)));
+    }
+    return result;
+  }
+
+  /**
+   * Ein Teil pro Bedingung ohne Platzhalter. Die Bedingungen m&uuml;ssen
+   * disjunkt sein.
+   */
+  public static List<QuerySlice> predicates(String... predicates) {
+    List<QuerySlice> result = new ArrayList<>(predicates.length);
+    for (String predicate : predicates) {
+      result.add(new QuerySlice(predicate, Collections.emptyList()));
+    }
+    return result;
+  }
+
+  private static void verifyCount(int count) {
+    if (count < 1) {
+      throw new IllegalArgumentException(String.format("Ungültige Anzahl Teile %d", count));
+    }
+  }
+
+  /**
+   * @return Query des Teils
+   */
+  public String apply(String query) {
+    return "SELECT * FROM (" + query + ") q WHERE " + predicate;
+  }
+
+  /**
+   * @return Platzhalterwerte des Queries gefolgt von denen der Bedingung
+   */
+  public List<Object> apply(List<Object> columnValues) {
+    List<Object> values = new ArrayList<>(columnValues.size() + parameters.size());
+    values.addAll(columnValues);
+    values.addAll(parameters);
+    return values;
+  }
+
+  public String getPredicate() {
+    return predicate;
+  }
+
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("QuerySlice [%s %s]", predicate, parameters);
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+/**
+ * Schnittstellen f&uuml;r reaktive Streams mit Backpressure, mit denselben
+ * Methoden wie <code>java.util.concurrent.Flow</code> (ab Java 9) bzw.
+ * <code>org.reactivestreams</code>. Das Projekt wird f&uuml;r Java 8 gebaut,
+ * daher stehen sie hier; ein Adapter auf <code>Flow</code> oder Reactive
+ * Streams muss nur die Aufrufe weiterreichen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public final class ReactiveFlow {
+
+  private ReactiveFlow() {
+  }
+
+  /**
+   * Liefert Elemente an einen {@link Subscriber}, h&ouml;chstens so viele wie
+   * &uuml;ber {@link Subscription#request(long)} angefordert.
+   */
+  @FunctionalInterface
+  public interface Publisher<T> {
+    void subscribe(Subscriber<? super T> subscriber);
+  }
+
+  /**
+   * Empf&auml;nger der Elemente. Nach {@link #onSubscribe(Subscription)}
+   * folgen beliebig viele {@link #onNext(Object)} und h&ouml;chstens einmal
+   * {@link #onError(Throwable)} oder {@link #onComplete()}.
+   */
+  public interface Subscriber<T> {
+
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+  }
+
+  /**
+   * Verbindung zwischen {@link Publisher} und {@link Subscriber}.
+   */
+  public interface Subscription {
+
+    /**
+     * Fordert <code>n</code> weitere Elemente an, <code>n</code> muss
+     * gr&ouml;&szlig;er als 0 sein.
+     */
+    void request(long n);
+
+    /**
+     * Beendet die Lieferung, danach kommen keine weiteren Signale.
+     */
+    void cancel();
+  }
+}
@@ -7,13 +7,14 @@ import java.sql.SQLException;
 
 /**
  * Diese Interface bietet die M&ouml;glichkeit, ein Datenbanktabelle zeilweise
- * zu lesen und daruf ein Typisiert Objekt zu liefern.
+ * zu lesen und daruf ein Typisiert Objekt zu liefern. Als
+ * {@link AutoCloseable} kann es in try-with-resources verwendet werden.
  *
  * @param <T>
  *          ein Typ-Objekt. Gelesene Datenbank Row wird zu dieser Typ modeliert.
  * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a> *
  */
-public interface ReadItem<T> {
+public interface ReadItem<T> extends AutoCloseable {
 
   /**
    * Liest die n&auml;chte Row aus der {@link java.sql.ResultSet} und darauf
@@ -30,6 +31,7 @@ public interface ReadItem<T> {
   /**
    * Datenbank Ressources zu freigeben.
    */
+  @Override
   void close();
 
 }
@@ -0,0 +1,68 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link Spliterator} &uuml;ber ein {@link ReadItem}. Jede Zeile wird erst
+ * gelesen, wenn der Stream sie anfordert. Am Ende der Zeilen oder beim
+ * Schlie&szlig;en des Streams wird das {@link ReadItem} geschlossen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+final class ReadItemSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+  private final ReadItem<T> readItem;
+  private boolean closed;
+
+  private ReadItemSpliterator(ReadItem<T> readItem) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    this.readItem = readItem;
+  }
+
+  /**
+   * @return sequentieller Stream &uuml;ber die Zeilen, der mit
+   *         {@link Stream#close()} das {@link ReadItem} schlie&szlig;t.
+   */
+  static <T> Stream<T> stream(ReadItem<T> readItem) {
+    ReadItemSpliterator<T> spliterator = new ReadItemSpliterator<>(readItem);
+    return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (closed) {
+      return false;
+    }
+
+    T item;
+    try {
+      item = readItem.nextItem();
+    } catch (SQLException ex) {
+      close();
+      throw new RuntimeException("Fehler beim Lesen der nächsten Zeile.", ex);
+    }
+
+    if (Objects.isNull(item)) {
+      close();
+      return false;
+    }
+    action.accept(item);
+    return true;
+  }
+
+  private void close() {
+    if (!closed) {
+      closed = true;
+      readItem.close();
+    }
+  }
+}
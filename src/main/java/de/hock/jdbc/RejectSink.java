@@ -0,0 +1,27 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Nimmt Zeilen auf, die beim Batch-Schreiben einzeln fehlgeschlagen sind und
+ * deshalb nicht geschrieben wurden.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+@FunctionalInterface
+public interface RejectSink {
+
+  /**
+   * @param query
+   *          das Schreibquery
+   * @param row
+   *          die abgewiesene Zeile (Platzhalterwerte oder Entity)
+   * @param cause
+   *          der Fehler der Zeile
+   */
+  public void reject(String query, Object row, SQLException cause);
+
+}
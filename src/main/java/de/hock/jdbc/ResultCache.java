@@ -0,0 +1,239 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Begrenzter LRU-Cache f&uuml;r Select-Ergebnisse mit Ablaufzeit. Der
+ * Schl&uuml;ssel besteht aus Query, Platzhalterwerten und Zieltyp. Jeder
+ * Eintrag bekommt beim Einf&uuml;gen seine Ablaufzeit; abgelaufene
+ * Eintr&auml;ge werden beim n&auml;chsten Zugriff entfernt. Ist der Cache voll,
+ * wird der am l&auml;ngsten nicht verwendete Eintrag verdr&auml;ngt.
+ *
+ * {@link #invalidate(String)} entfernt alle Eintr&auml;ge, deren Query den
+ * Tabellennamen als Wort enth&auml;lt. Das ist bewusst grob: lieber ein
+ * Eintrag zu viel entfernt als ein veraltetes Ergebnis geliefert. Ein
+ * Ergebnis, dessen Select vor einer Invalidierung gestartet wurde, wird
+ * nicht mehr aufgenommen ({@link #getGeneration()}).
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class ResultCache {
+
+  private static final Pattern WRITE_TABLE = Pattern.compile(
+      "^\\s*(?:INSERT\\s+(?:/\\*.*?\\*/\\s*)?INTO|UPDATE|DELETE(?:\\s+FROM)?|MERGE\\s+(?:/\\*.*?\\*/\\s*)?INTO)\\s+([\\w$#.\"]+)",
+      Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  private final LinkedHashMap<List<Object>, CachedResult> results;
+  private final long ttlNanos;
+  private int maxSize;
+  private long generation;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long expirations;
+  private long invalidations;
+
+  /**
+   * @param maxSize
+   *          maximale Anzahl Ergebnisse, gr&ouml;&szlig;er als 0
+   * @param ttlMillis
+   *          Lebensdauer eines Ergebnisses, gr&ouml;&szlig;er als 0
+   */
+  public ResultCache(int maxSize, long ttlMillis) {
+    if (maxSize < 1 || ttlMillis < 1) {
+      throw new IllegalArgumentException(String.format("Ungültige Einstellung maxSize=%d, ttlMillis=%d", maxSize, ttlMillis));
+    }
+    this.maxSize = maxSize;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    this.results = new LinkedHashMap<List<Object>, CachedResult>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedResult> eldest) {
+        boolean evict = size() > ResultCache.this.maxSize;
+        if (evict) {
+          evictions++;
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * @return die Zeilen zum Schl&uuml;ssel oder <code>null</code>, wenn es
+   *         kein g&uuml;ltiges Ergebnis gibt
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <T> List<T> get(List<Object> key) {
+    CachedResult result = results.get(key);
+    if (Objects.nonNull(result) && result.expiresAt - System.nanoTime() <= 0) {
+      results.remove(key);
+      expirations++;
+      result = null;
+    }
+
+    if (Objects.isNull(result)) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return (List<T>) result.rows;
+  }
+
+  /**
+   * Nimmt ein Ergebnis auf, wenn seit <code>generation</code> nichts
+   * invalidiert wurde.
+   *
+   * @param key
+   *          Schl&uuml;ssel, das Query muss das erste Element sein
+   * @param rows
+   *          die gelesenen Zeilen
+   * @param generation
+   *          {@link #getGeneration()} vor dem Select
+   */
+  public synchronized void put(List<Object> key, List<?> rows, long generation) {
+    if (generation != this.generation) {
+      return;
+    }
+    String query = String.valueOf(key.get(0)).toUpperCase(Locale.ROOT);
+    results.put(key, new CachedResult(query, Collections.unmodifiableList(new ArrayList<>(rows)), System.nanoTime() + ttlNanos));
+  }
+
+  /**
+   * @return Z&auml;hler, der bei jeder Invalidierung erh&ouml;ht wird
+   */
+  public synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Entfernt alle Ergebnisse, deren Query die Tabelle erw&auml;hnt. Ein
+   * Schema-Pr&auml;fix und Anf&uuml;hrungszeichen werden ignoriert.
+   */
+  public synchronized void invalidate(String tableName) {
+    generation++;
+    String table = simpleName(tableName);
+    if (table.isEmpty()) {
+      invalidateAll();
+      return;
+    }
+
+    Pattern mention = Pattern.compile("(?<![\\w$#])" + Pattern.quote(table) + "(?![\\w$#])");
+    Iterator<CachedResult> iterator = results.values().iterator();
+    while (iterator.hasNext()) {
+      if (mention.matcher(iterator.next().query).find()) {
+        iterator.remove();
+        invalidations++;
+      }
+    }
+  }
+
+  /**
+   * Entfernt alle Ergebnisse, z.B. nach DDL oder einem Schreibquery, dessen
+   * Tabelle nicht erkannt wird.
+   */
+  public synchronized void invalidateAll() {
+    generation++;
+    invalidations += results.size();
+    results.clear();
+  }
+
+  /**
+   * Invalidiert die Tabelle eines INSERT-, UPDATE-, DELETE- oder
+   * MERGE-Queries, bei anderen Queries den ganzen Cache.
+   *
+   * @return die invalidierte Tabelle oder <code>null</code>, wenn der ganze
+   *         Cache invalidiert wurde
+   */
+  public String invalidateQuery(String query) {
+    Matcher matcher = WRITE_TABLE.matcher(query);
+    if (matcher.find()) {
+      invalidate(matcher.group(1));
+      return matcher.group(1);
+    }
+    invalidateAll();
+    return null;
+  }
+
+  private static String simpleName(String tableName) {
+    String name = Objects.toString(tableName, "").replace("\"", "").trim();
+    return name.substring(name.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+  }
+
+  public synchronized int getMaxSize() {
+    return maxSize;
+  }
+
+  public synchronized int size() {
+    return results.size();
+  }
+
+  public long getTtlMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized long getExpirations() {
+    return expirations;
+  }
+
+  public synchronized long getInvalidations() {
+    return invalidations;
+  }
+
+  /**
+   * @return Anteil Treffer an allen Zugriffen, 0 ohne Zugriffe
+   */
+  public synchronized double getHitRatio() {
+    long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("ResultCache [size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d, expirations=%d, invalidations=%d, hitRatio=%.2f]",
+        results.size(), maxSize, hits, misses, evictions, expirations, invalidations, getHitRatio());
+  }
+
+  /**
+   * Ein Ergebnis mit dem Query in Gro&szlig;buchstaben f&uuml;r die
+   * Invalidierung.
+   */
+  private static final class CachedResult {
+
+    private final String query;
+    private final List<?> rows;
+    private final long expiresAt;
+
+    private CachedResult(String query, List<?> rows, long expiresAt) {
+      this.query = query;
+      this.rows = rows;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
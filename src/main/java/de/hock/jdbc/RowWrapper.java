@@ -27,10 +27,12 @@ public class RowWrapper<T> implements ReadItem<T> {
   private RowMapper<T> mapper;
   private ResultSet resultSet;
   private Statement statement;
+  private FetchSizeAdvisor fetchSizeAdvisor;
+  private ConnectionManager connectionManager;
 
   @Override
   public T nextItem() throws SQLException {
-    if (resultSet.next()) {
+    if (Objects.isNull(fetchSizeAdvisor) ? resultSet.next() : fetchSizeAdvisor.next(resultSet)) {
       return mapper.mapRow(resultSet);
     }
 
@@ -47,6 +49,11 @@ public class RowWrapper<T> implements ReadItem<T> {
       logger.log(Level.SEVERE, "Fehler beim ResultSet zu schlißen.", sqlEx);
     }
 
+    if (Objects.nonNull(connectionManager)) {
+      connectionManager.close(connection, statement);
+      return;
+    }
+
     try {
       if (Objects.nonNull(statement)) {
         statement.close();
@@ -74,4 +81,21 @@ public class RowWrapper<T> implements ReadItem<T> {
     this.statement = preparedStatement;
   }
 
+  /**
+   * Statement und Connection werden beim Schlie&szlig;en &uuml;ber den
+   * {@link ConnectionManager} freigegeben, damit eine Connection einer
+   * laufenden Transaktion offen bleibt.
+   */
+  void setConnectionManager(ConnectionManager connectionManager) {
+    this.connectionManager = connectionManager;
+  }
+
+  /**
+   * Passt die Fetch-Size beim Lesen an, <code>null</code> f&uuml;r eine feste
+   * Fetch-Size.
+   */
+  void setFetchSizeAdvisor(FetchSizeAdvisor fetchSizeAdvisor) {
+    this.fetchSizeAdvisor = fetchSizeAdvisor;
+  }
+
 }
@@ -5,10 +5,15 @@
  */
 package de.hock.jdbc;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Date;
 import java.sql.JDBCType;
 import java.sql.PreparedStatement;
@@ -20,10 +25,11 @@ import java.text.MessageFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Ein Java Type zu SQL Datentyp mapper
@@ -32,20 +38,52 @@ import java.util.stream.Stream;
  */
 public class SQLTypeMapper {
 
-  private static final String BYTE_ARRAY = "byte[]";
-  private static final String LOCALDATETIME = "java.time.LocalDateTime";
-  private static final String LOCALTIME = "java.time.LocalTime";
-  private static final String LOCALDATE = "java.time.LocalDate";
-  private static final String DOUBLE = "java.lang.Double";
-  private static final String FLOAT = "java.lang.Float";
-  private static final String LONG = "java.lang.Long";
-  private static final String INTEGER = "java.lang.Integer";
-  private static final String SHORT = "java.lang.Short";
-  private static final String BYTE = "java.lang.Byte";
-  private static final String BOOLEAN = "java.lang.Boolean";
-  private static final String BIGDECIMAL = "java.math.BigDecimal";
-  private static final String STRING = "java.lang.String";
-  private IllegalArgumentException exception = null;
+  /** Codec pro Java-Typ, einmal aufgebaut. */
+  private static final Map<Class<?>, ColumnCodec> codecs = new HashMap<>();
+
+  /** Codec f&uuml;r Typen au&szlig;erhalb von {@link #codecs}, z.B. Enums. */
+  private static final Map<Class<?>, ColumnCodec> resolvedCodecs = new ConcurrentHashMap<>();
+
+  /** Markiert einen Typ ohne Codec in {@link #resolvedCodecs}. */
+  private static final ColumnCodec UNSUPPORTED = new TypeCodec((resultSet, index) -> null, (preparedStatement, index, value) -> {
+    throw new IllegalArgumentException(MessageFormat.format("Es gibt keine mapper für Java type {0}", value.getClass().getTypeName()));
+  });
+
+  static {
+    register(new TypeCodec(ResultSet::getString, (ps, index, value) -> ps.setString(index, (String) value)), String.class);
+    register(new TypeCodec(ResultSet::getBigDecimal, (ps, index, value) -> ps.setBigDecimal(index, (BigDecimal) value)), BigDecimal.class);
+    register(new TypeCodec(ResultSet::getBoolean, (ps, index, value) -> ps.setBoolean(index, (Boolean) value)), Boolean.class, boolean.class);
+    register(new TypeCodec(ResultSet::getByte, (ps, index, value) -> ps.setByte(index, (Byte) value)), Byte.class, byte.class);
+    register(new TypeCodec(ResultSet::getShort, (ps, index, value) -> ps.setShort(index, (Short) value)), Short.class, short.class);
+    register(new TypeCodec(ResultSet::getInt, (ps, index, value) -> ps.setInt(index, (Integer) value)), Integer.class, int.class);
+    register(new TypeCodec(ResultSet::getLong, (ps, index, value) -> ps.setLong(index, (Long) value)), Long.class, long.class);
+    register(new TypeCodec(ResultSet::getFloat, (ps, index, value) -> ps.setFloat(index, (Float) value)), Float.class, float.class);
+    register(new TypeCodec(ResultSet::getDouble, (ps, index, value) -> ps.setDouble(index, (Double) value)), Double.class, double.class);
+    register(new TypeCodec(MapperSupport::getLocalDate, (ps, index, value) -> ps.setDate(index, Date.valueOf((LocalDate) value))), LocalDate.class);
+    register(new TypeCodec(MapperSupport::getLocalTime, (ps, index, value) -> ps.setTime(index, Time.valueOf((LocalTime) value))), LocalTime.class);
+    register(new TypeCodec(MapperSupport::getLocalDateTime, (ps, index, value) -> ps.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value))),
+        LocalDateTime.class);
+    register(new TypeCodec(ResultSet::getBytes, (ps, index, value) -> ps.setBytes(index, (byte[]) value)), byte[].class);
+  }
+
+  /**
+   * Codecs f&uuml;r LOB-Spalten, aufgel&ouml;st &uuml;ber die Klassenhierarchie
+   * des Wertes (z.B. {@link Path} Implementierungen). Ein gelesener
+   * {@link InputStream} oder {@link Reader} ist nur bis zur n&auml;chsten
+   * Zeile g&uuml;ltig.
+   */
+  private static final Map<Class<?>, ColumnCodec> lobCodecs = new LinkedHashMap<>();
+
+  static {
+    lobCodecs.put(InputStream.class,
+        new TypeCodec(ResultSet::getBinaryStream, (ps, index, value) -> ps.setBinaryStream(index, (InputStream) value)));
+    lobCodecs.put(Reader.class, new TypeCodec(ResultSet::getCharacterStream, (ps, index, value) -> ps.setCharacterStream(index, (Reader) value)));
+    lobCodecs.put(Path.class, new TypeCodec((resultSet, index) -> {
+      throw new IllegalArgumentException("Path kann nur geschrieben werden, bitte InputStream verwenden");
+    }, (ps, index, value) -> ps.setBinaryStream(index, LobSupport.openLazy((Path) value), sizeOf((Path) value))));
+    lobCodecs.put(Blob.class, new TypeCodec(ResultSet::getBlob, (ps, index, value) -> ps.setBlob(index, (Blob) value)));
+    lobCodecs.put(Clob.class, new TypeCodec(ResultSet::getClob, (ps, index, value) -> ps.setClob(index, (Clob) value)));
+  }
 
   private static EntityReflection reflection = new EntityReflection();
 
@@ -76,58 +114,7 @@ public class SQLTypeMapper {
       return;
     }
 
-    String typeName = spaltewert.getClass().getTypeName();
-    switch (typeName) {
-    case STRING:
-      preparedStatement.setString(placeholderIndex, (String) spaltewert);
-      break;
-    case BIGDECIMAL:
-      preparedStatement.setBigDecimal(placeholderIndex, (BigDecimal) spaltewert);
-      break;
-    case BOOLEAN:
-      preparedStatement.setBoolean(placeholderIndex, (Boolean) spaltewert);
-      break;
-    case BYTE:
-      preparedStatement.setByte(placeholderIndex, (Byte) spaltewert);
-      break;
-    case SHORT:
-      preparedStatement.setShort(placeholderIndex, (Short) spaltewert);
-      break;
-    case INTEGER:
-      preparedStatement.setInt(placeholderIndex, (Integer) spaltewert);
-      break;
-    case LONG:
-      preparedStatement.setLong(placeholderIndex, (Long) spaltewert);
-      break;
-    case FLOAT:
-      preparedStatement.setFloat(placeholderIndex, (Float) spaltewert);
-      break;
-    case DOUBLE:
-      preparedStatement.setDouble(placeholderIndex, (Double) spaltewert);
-      break;
-    case LOCALDATE:
-      LocalDate localdate = (LocalDate) spaltewert;
-      preparedStatement.setDate(placeholderIndex, Date.valueOf(localdate));
-      break;
-    case LOCALTIME:
-      LocalTime localtime = (LocalTime) spaltewert;
-      preparedStatement.setTime(placeholderIndex, Time.valueOf(localtime));
-      break;
-    case LOCALDATETIME:
-      LocalDateTime localdatetime = (LocalDateTime) spaltewert;
-      preparedStatement.setTimestamp(placeholderIndex, Timestamp.valueOf(localdatetime));
-      break;
-    case BYTE_ARRAY:
-      byte[] byteWert = (byte[]) spaltewert;
-      preparedStatement.setBytes(placeholderIndex, byteWert);
-      break;
-    default:
-      if (reflection.isEnum(spaltewert.getClass())) {
-        preparedStatement.setString(placeholderIndex, spaltewert.toString());
-      } else {
-        throw new IllegalArgumentException(MessageFormat.format("Es gibt keine mapper für Java type {0}", typeName));
-      }
-    }
+    getCodecOrThrow(spaltewert.getClass()).write(preparedStatement, placeholderIndex, spaltewert);
   }
 
   /**
@@ -157,39 +144,83 @@ public class SQLTypeMapper {
       throws SQLException, ClassNotFoundException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
     validator.verifyArguments(resultSet, columnName, classType);
 
-    switch (classType.getTypeName()) {
-    case STRING:
-      return resultSet.getString(columnName);
-    case BIGDECIMAL:
-      return resultSet.getBigDecimal(columnName);
-    case BOOLEAN:
-      return resultSet.getBoolean(columnName);
-    case BYTE:
-      return resultSet.getByte(columnName);
-    case SHORT:
-      return resultSet.getShort(columnName);
-    case INTEGER:
-      return resultSet.getInt(columnName);
-    case LONG:
-      return resultSet.getLong(columnName);
-    case FLOAT:
-      return resultSet.getFloat(columnName);
-    case DOUBLE:
-      return resultSet.getDouble(columnName);
-    case LOCALDATE:
-      return resultSet.getDate(columnName).toLocalDate();
-    case LOCALTIME:
-      return resultSet.getTime(columnName).toLocalTime();
-    case LOCALDATETIME:
-      return resultSet.getTimestamp(columnName).toLocalDateTime();
-    case BYTE_ARRAY:
-      return resultSet.getBytes(columnName);
-    default:
-      if (reflection.isEnum(classType)) {
-        return getEnumValue(resultSet, columnName, classType);
+    return getObject(resultSet, resultSet.findColumn(columnName), classType);
+  }
+
+  /**
+   * Dieses Hilfemethode liest ein <code>classType</code> aus der
+   * {@link ResultSet} an der Spalte <code>columnIndex</code>. F&uuml;r viele
+   * Zeilen sollte der Codec mit {@link #getCodec(Class)} einmal ermittelt
+   * werden.
+   *
+   * @param resultSet
+   *          ein {@link ResultSet}-Objekt
+   * @param columnIndex
+   *          Spaltenindex ab 1
+   * @param classType
+   *          Objekt-Type, dass Spaltenwert zu richtige Typ zu mappen.
+   * @return ein <code>classType</code> aus der {@link ResultSet}, oder
+   *         <code>null</code> f&uuml;r einen unbekannten Typ.
+   * @throws SQLException
+   *           falls ein Datenbank fehler tritt auf.
+   */
+  public <T> Object getObject(ResultSet resultSet, int columnIndex, Class<T> classType) throws SQLException {
+    ColumnCodec codec = getCodec(classType);
+    return Objects.isNull(codec) ? null : codec.read(resultSet, columnIndex);
+  }
+
+  /**
+   * Liefert den {@link ColumnCodec} f&uuml;r den angegebenen Java-Typ. Der
+   * Codec wird einmal ermittelt und danach aus dem Cache geliefert.
+   *
+   * @param classType
+   *          ein Java-Typ
+   * @return der Codec, oder <code>null</code>, falls es f&uuml;r den Typ keinen
+   *         Mapper gibt.
+   */
+  public ColumnCodec getCodec(Class<?> classType) {
+    ColumnCodec codec = codecs.get(classType);
+    if (Objects.isNull(codec)) {
+      codec = resolvedCodecs.computeIfAbsent(classType, this::resolveCodec);
+    }
+
+    return codec == UNSUPPORTED ? null : codec;
+  }
+
+  /**
+   * Wie {@link #getCodec(Class)}, aber f&uuml;r jeden Typ in
+   * <code>classTypes</code>.
+   */
+  public ColumnCodec[] getCodecs(Class<?>[] classTypes) {
+    ColumnCodec[] columnCodecs = new ColumnCodec[classTypes.length];
+    for (int index = 0; index < classTypes.length; index++) {
+      columnCodecs[index] = getCodec(classTypes[index]);
+    }
+    return columnCodecs;
+  }
+
+  private ColumnCodec getCodecOrThrow(Class<?> classType) {
+    ColumnCodec codec = codecs.get(classType);
+    return Objects.nonNull(codec) ? codec : resolvedCodecs.computeIfAbsent(classType, this::resolveCodec);
+  }
+
+  private ColumnCodec resolveCodec(Class<?> classType) {
+    if (reflection.isEnum(classType)) {
+      return EnumCodec.of(classType);
+    }
+
+    for (Map.Entry<Class<?>, ColumnCodec> entry : lobCodecs.entrySet()) {
+      if (entry.getKey().isAssignableFrom(classType)) {
+        return entry.getValue();
       }
+    }
 
-      return null;
+    return UNSUPPORTED;
+  }
+
+  private static void register(ColumnCodec codec, Class<?>... classTypes) {
+    for (Class<?> classType : classTypes) {
+      codecs.put(classType, codec);
     }
   }
 
@@ -202,35 +233,121 @@ public class SQLTypeMapper {
    * @throws SQLException
    */
   public Object getObject(ResultSet resultSet, String columnName, Integer sqlType) throws SQLException {
+    return getObject(resultSet, resultSet.findColumn(columnName), sqlType);
+  }
+
+  /**
+   * Wie {@link #getObject(ResultSet, String, Integer)}, aber &uuml;ber den
+   * Spaltenindex.
+   *
+   * @param resultSet
+   * @param columnIndex
+   *          Spaltenindex ab 1
+   * @param sqlType
+   *          ein {@link java.sql.Types} Wert
+   * @return gelesener Wert
+   * @throws SQLException
+   */
+  public Object getObject(ResultSet resultSet, int columnIndex, Integer sqlType) throws SQLException {
     switch (sqlType) {
     case java.sql.Types.ARRAY:
-      return resultSet.getArray(columnName);
+      return resultSet.getArray(columnIndex);
     case java.sql.Types.BIT:
     case java.sql.Types.SMALLINT:
     case java.sql.Types.INTEGER:
-      return resultSet.getInt(columnName);
+      return resultSet.getInt(columnIndex);
     case java.sql.Types.BIGINT:
     case java.sql.Types.DECIMAL:
     case java.sql.Types.NUMERIC:
-      return resultSet.getLong(columnName);
+      return resultSet.getLong(columnIndex);
     case java.sql.Types.DOUBLE:
     case java.sql.Types.FLOAT:
-      return resultSet.getDouble(columnName);
+      return resultSet.getDouble(columnIndex);
     case java.sql.Types.BOOLEAN:
-      return resultSet.getBoolean(columnName);
+      return resultSet.getBoolean(columnIndex);
     case java.sql.Types.CHAR:
-      return resultSet.getCharacterStream(columnName);
+      return resultSet.getCharacterStream(columnIndex);
     case java.sql.Types.CLOB:
     case java.sql.Types.LONGNVARCHAR:
     case java.sql.Types.LONGVARCHAR:
-      return resultSet.getString(columnName);
+      return resultSet.getString(columnIndex);
     case java.sql.Types.BLOB:
-      Blob blob = resultSet.getBlob(columnName);
-      byte[] bytes = blob.getBytes(1, Long.valueOf(blob.length()).intValue());
-      blob.free();
-      return Arrays.toString(bytes);
+      Blob blob = resultSet.getBlob(columnIndex);
+      if (Objects.isNull(blob)) {
+        return null;
+      }
+      StringBuilder bytes = new StringBuilder();
+      appendBlob(blob, bytes);
+      return bytes.toString();
     default:
-      return resultSet.getObject(columnName);
+      return resultSet.getObject(columnIndex);
+    }
+  }
+
+  /**
+   * Wie {@link #getObject(ResultSet, int, Integer)}, aber der Wert wird direkt
+   * in <code>sink</code> geschrieben. BLOB, CLOB und Character-Streams werden
+   * dabei in Bl&ouml;cken kopiert und nicht vollst&auml;ndig im Speicher
+   * aufgebaut. Ein BLOB wird wie {@link java.util.Arrays#toString(byte[])}
+   * formatiert.
+   *
+   * @param resultSet
+   * @param columnIndex
+   *          Spaltenindex ab 1
+   * @param sqlType
+   *          ein {@link java.sql.Types} Wert
+   * @param sink
+   *          das Ziel, z.B. ein {@link StringBuilder} oder {@link java.io.Writer}
+   * @throws SQLException
+   *           falls ein Datenbank fehler oder ein Fehler beim Schreiben tritt
+   *           auf.
+   */
+  public void appendObject(ResultSet resultSet, int columnIndex, Integer sqlType, Appendable sink) throws SQLException {
+    try {
+      switch (sqlType) {
+      case java.sql.Types.BLOB:
+        Blob blob = resultSet.getBlob(columnIndex);
+        if (Objects.isNull(blob)) {
+          sink.append(String.valueOf((Object) null));
+        } else {
+          appendBlob(blob, sink);
+        }
+        break;
+      case java.sql.Types.CHAR:
+      case java.sql.Types.CLOB:
+      case java.sql.Types.LONGNVARCHAR:
+      case java.sql.Types.LONGVARCHAR:
+        try (Reader reader = resultSet.getCharacterStream(columnIndex)) {
+          if (Objects.isNull(reader)) {
+            sink.append(String.valueOf((Object) null));
+          } else {
+            LobSupport.copy(reader, sink);
+          }
+        }
+        break;
+      default:
+        sink.append(String.valueOf(getObject(resultSet, columnIndex, sqlType)));
+      }
+    } catch (IOException ioEx) {
+      throw new SQLException(MessageFormat.format("Spalte {0} kann nicht kopiert werden", columnIndex), ioEx);
+    }
+  }
+
+  private void appendBlob(Blob blob, Appendable sink) throws SQLException {
+    try (InputStream input = blob.getBinaryStream()) {
+      LobSupport.appendByteArrayString(input, sink);
+    } catch (IOException ioEx) {
+      throw new SQLException("BLOB kann nicht gelesen werden", ioEx);
+    } finally {
+      blob.free();
+    }
+  }
+
+  private static long sizeOf(Path path) throws SQLException {
+    try {
+      return Files.size(path);
+    } catch (IOException ioEx) {
+      throw new SQLException(MessageFormat.format("Datei {0} kann nicht gelesen werden", path), ioEx);
     }
   }
 
@@ -256,27 +373,54 @@ public class SQLTypeMapper {
    * @throws EntitityWrapperException
    *           falls ein Fehler tritt auf.
    */
-  @SuppressWarnings({ "unchecked", "rawtypes" })
   public <T> Object getEnumValue(ResultSet resultSet, String columnName, Class<T> classType)
       throws SQLException, ClassNotFoundException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
     validator.verifyArguments(resultSet, columnName, classType);
 
-    String enumValue = resultSet.getString(columnName);
-    Object enumObject = null;
+    ColumnCodec codec = getCodecOrThrow(classType);
+    if (!(codec instanceof EnumCodec)) {
+      throw new IllegalArgumentException(MessageFormat.format("{0} ist kein Enum", classType.getName()));
+    }
+
+    return ((EnumCodec) codec).decode(resultSet.getString(columnName));
+  }
 
-    try {
-      Class type = Class.forName(classType.getTypeName());
-      enumObject = Enum.valueOf(type, enumValue);
-    } catch (IllegalArgumentException iae) {
-      exception = iae;
+  @FunctionalInterface
+  private interface ValueReader {
+    Object read(ResultSet resultSet, int index) throws SQLException;
+  }
+
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(PreparedStatement preparedStatement, int index, Object value) throws SQLException;
+  }
+
+  /**
+   * {@link ColumnCodec} aus Lese- und Schreibfunktion. Ein <code>null</code>
+   * Wert wird immer als SQL NULL gesetzt.
+   */
+  private static final class TypeCodec implements ColumnCodec {
+
+    private final ValueReader reader;
+    private final ValueWriter writer;
+
+    private TypeCodec(ValueReader reader, ValueWriter writer) {
+      this.reader = reader;
+      this.writer = writer;
     }
 
-    if (Objects.isNull(enumObject)) {
-      Optional<Method> firstMethod = Stream.of(classType.getDeclaredMethods()).filter(m -> Objects.equals("fromValue", m.getName())).findFirst();
-      Method method = firstMethod.orElseThrow(() -> new IllegalArgumentException("Neither Enum#valueof() nor T#fromValue() is present.", exception));
-      enumObject = method.invoke(null, enumValue);
+    @Override
+    public Object read(ResultSet resultSet, int index) throws SQLException {
+      return reader.read(resultSet, index);
     }
 
-    return enumObject;
+    @Override
+    public void write(PreparedStatement preparedStatement, int index, Object value) throws SQLException {
+      if (Objects.isNull(value)) {
+        preparedStatement.setNull(index, JDBCType.NULL.getVendorTypeNumber());
+      } else {
+        writer.write(preparedStatement, index, value);
+      }
+    }
   }
 }
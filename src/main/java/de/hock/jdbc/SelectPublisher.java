@@ -0,0 +1,213 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.hock.jdbc.ReactiveFlow.Publisher;
+import de.hock.jdbc.ReactiveFlow.Subscriber;
+import de.hock.jdbc.ReactiveFlow.Subscription;
+
+/**
+ * {@link Publisher}, der die Zeilen eines Selects nur so schnell aus dem
+ * {@link java.sql.ResultSet} liest, wie der {@link Subscriber} sie anfordert.
+ *
+ * Jedes {@link #subscribe(Subscriber)} f&uuml;hrt das Select neu aus, und zwar
+ * erst bei der ersten Anforderung. Gelesen und geliefert wird in Tasks auf dem
+ * {@link Executor}, die nur laufen, solange offene Anforderungen vorliegen;
+ * ohne Anforderung wird kein Thread belegt und es wird nichts gepuffert
+ * au&szlig;er der Fetch-Size des Treibers. Pro Task werden h&ouml;chstens
+ * {@link #ROWS_PER_TASK} Zeilen geliefert, damit andere Subscriber auf
+ * demselben {@link Executor} nicht verhungern.
+ *
+ * Statement und Connection werden bei {@link Subscriber#onComplete()},
+ * {@link Subscriber#onError(Throwable)} und
+ * {@link Subscription#cancel()} freigegeben. Das {@link ReadItem} wird immer
+ * nur von einem Task gleichzeitig verwendet. Nur Fehler beim Lesen werden mit
+ * {@link Subscriber#onError(Throwable)} gemeldet; wirft der {@link Subscriber}
+ * selbst eine Exception, gilt die Subscription als abgebrochen und die
+ * Exception wird nur geloggt.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class SelectPublisher<T> implements Publisher<T> {
+
+  private static final Logger logger = Logger.getLogger(SelectPublisher.class.getSimpleName());
+
+  /** Maximale Anzahl Zeilen pro Task. */
+  static final int ROWS_PER_TASK = 256;
+
+  private static final ExecutorService defaultExecutor = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "select-publisher");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * &Ouml;ffnet das {@link ReadItem} des Selects.
+   */
+  @FunctionalInterface
+  public interface ReadItemOpener<T> {
+    ReadItem<T> open() throws SQLException;
+  }
+
+  private final ReadItemOpener<T> opener;
+  private final Executor executor;
+
+  /**
+   * @param opener
+   *          f&uuml;hrt das Select aus
+   * @param executor
+   *          f&uuml;hrt die Lese-Tasks aus, <code>null</code> f&uuml;r einen
+   *          gemeinsamen Thread-Pool
+   */
+  public SelectPublisher(ReadItemOpener<T> opener, Executor executor) {
+    this.opener = Objects.requireNonNull(opener, "opener");
+    this.executor = Objects.isNull(executor) ? defaultExecutor : executor;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.hock.jdbc.ReactiveFlow.Publisher#subscribe(de.hock.jdbc.
+   * ReactiveFlow.Subscriber)
+   */
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    SelectSubscription subscription = new SelectSubscription(subscriber);
+    subscriber.onSubscribe(subscription);
+  }
+
+  /**
+   * Liest bei Bedarf und liefert die Zeilen an einen Subscriber. Alle Signale
+   * an den Subscriber kommen aus {@link #drain()}, das durch
+   * <code>pending</code> nie parallel l&auml;uft.
+   */
+  private final class SelectSubscription implements Subscription {
+
+    private final Subscriber<? super T> subscriber;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+    private ReadItem<T> readItem;
+    private boolean done;
+
+    private SelectSubscription(Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException(String.format("Ungültige Anforderung %d, sie muss größer als 0 sein", n));
+      } else {
+        demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    private void schedule() {
+      if (pending.getAndIncrement() == 0) {
+        executor.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      int missed = 1;
+      int emitted = 0;
+      do {
+        if (done) {
+          return;
+        }
+        if (cancelled) {
+          finish();
+          return;
+        }
+        if (Objects.nonNull(invalidRequest)) {
+          fail(invalidRequest);
+          return;
+        }
+
+        while (demand.get() > 0 && !cancelled) {
+          if (emitted == ROWS_PER_TASK) {
+            // Thread freigeben und neu einreihen, ohne Anforderungen zu verlieren
+            pending.addAndGet(1 - missed);
+            executor.execute(this::drain);
+            return;
+          }
+
+          T row;
+          try {
+            if (Objects.isNull(readItem)) {
+              readItem = opener.open();
+            }
+            row = readItem.nextItem();
+          } catch (SQLException | RuntimeException ex) {
+            fail(ex);
+            return;
+          }
+
+          if (Objects.isNull(row)) {
+            finish();
+            try {
+              subscriber.onComplete();
+            } catch (RuntimeException ex) {
+              logger.log(Level.WARNING, "Subscriber hat in onComplete eine Exception geworfen.", ex);
+            }
+            return;
+          }
+
+          try {
+            subscriber.onNext(row);
+          } catch (RuntimeException ex) {
+            // Regel 2.13: die Subscription gilt als abgebrochen, kein onError
+            finish();
+            logger.log(Level.WARNING, "Subscriber hat in onNext eine Exception geworfen, die Subscription wird abgebrochen.", ex);
+            return;
+          }
+          emitted++;
+          if (demand.get() != Long.MAX_VALUE) {
+            demand.decrementAndGet();
+          }
+        }
+
+        missed = pending.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void fail(Throwable throwable) {
+      finish();
+      logger.log(Level.FINE, "Select-Publisher ist fehlgeschlagen.", throwable);
+      subscriber.onError(throwable);
+    }
+
+    /**
+     * Gibt Statement und Connection frei.
+     */
+    private void finish() {
+      done = true;
+      if (Objects.nonNull(readItem)) {
+        readItem.close();
+        readItem = null;
+      }
+    }
+  }
+}
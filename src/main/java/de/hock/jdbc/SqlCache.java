@@ -0,0 +1,130 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Begrenzter LRU-Cache f&uuml;r generierte SQL-Queries. Der Schl&uuml;ssel
+ * besteht aus Art des Queries, Tabelle bzw. Klasse und Spaltenliste. Ist der
+ * Cache voll, wird das am l&auml;ngsten nicht verwendete Query verdr&auml;ngt.
+ *
+ * Treffer, Fehlversuche und Verdr&auml;ngungen werden gez&auml;hlt, um die
+ * Gr&ouml;&szlig;e ({@link de.hock.run.ConfigProperty#SQL_CACHE_SIZE})
+ * passend einzustellen.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class SqlCache {
+
+  private final LinkedHashMap<List<Object>, String> queries;
+  private int maxSize;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * @param maxSize
+   *          maximale Anzahl Queries, gr&ouml;&szlig;er als 0
+   */
+  public SqlCache(int maxSize) {
+    this.maxSize = verifySize(maxSize);
+    this.queries = new LinkedHashMap<List<Object>, String>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<List<Object>, String> eldest) {
+        boolean evict = size() > SqlCache.this.maxSize;
+        if (evict) {
+          evictions++;
+        }
+        return evict;
+      }
+    };
+  }
+
+  private static int verifySize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException(String.format("Ungültige Cachegröße %d", maxSize));
+    }
+    return maxSize;
+  }
+
+  /**
+   * Liefert das Query zum Schl&uuml;ssel, beim ersten Zugriff wird es mit
+   * <code>generator</code> erzeugt.
+   *
+   * @param key
+   *          Schl&uuml;ssel, z.B. <code>Arrays.asList("INSERT", table, columns)</code>
+   * @param generator
+   *          erzeugt das Query
+   * @return das Query
+   */
+  public synchronized String get(List<Object> key, Supplier<String> generator) {
+    String query = queries.get(key);
+    if (Objects.nonNull(query)) {
+      hits++;
+      return query;
+    }
+
+    misses++;
+    query = generator.get();
+    queries.put(key, query);
+    return query;
+  }
+
+  /**
+   * &Auml;ndert die maximale Gr&ouml;&szlig;e. Beim Verkleinern werden die
+   * &auml;ltesten Queries sofort verdr&auml;ngt.
+   */
+  public synchronized void setMaxSize(int maxSize) {
+    this.maxSize = verifySize(maxSize);
+    Iterator<List<Object>> eldest = queries.keySet().iterator();
+    while (queries.size() > maxSize) {
+      eldest.next();
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  public synchronized int getMaxSize() {
+    return maxSize;
+  }
+
+  public synchronized int size() {
+    return queries.size();
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * @return Anteil Treffer an allen Zugriffen, 0 ohne Zugriffe
+   */
+  public synchronized double getHitRatio() {
+    long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("SqlCache [size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.2f]", queries.size(), maxSize, hits, misses,
+        evictions, getHitRatio());
+  }
+}
@@ -0,0 +1,222 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link ConnectionManager}, der zwischen {@link #begin()} und
+ * {@link #commit()} bzw. {@link #rollback()} eine {@link Connection} an den
+ * aktuellen Thread bindet. Alle Datenbankoperationen des Threads verwenden
+ * in dieser Zeit dieselbe Connection; ihre eigenen Commits und das
+ * Zur&uuml;ckgeben an den Pool entfallen, committed wird einmal am Ende.
+ *
+ * Schl&auml;gt eine Operation in der Transaktion fehl, wird die Transaktion
+ * nur zum Zur&uuml;ckrollen markiert; {@link #commit()} rollt dann zur&uuml;ck
+ * und wirft eine Exception. {@link #close()} rollt eine nicht beendete
+ * Transaktion zur&uuml;ck.
+ *
+ * Au&szlig;erhalb einer Transaktion und in anderen Threads (z.B. parallele
+ * Inserts, parallele Selects, Prefetch- und Publisher-Threads) verh&auml;lt
+ * sich der Manager wie {@link NonTransactionalConnectionManager}.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class TransactionalConnectionManager extends NonTransactionalConnectionManager implements Transactional {
+
+  private static final Logger logger = Logger.getLogger(TransactionalConnectionManager.class.getSimpleName());
+
+  private final ThreadLocal<BoundConnection> boundConnection = new ThreadLocal<>();
+
+  /**
+   * Alle gebundenen Connections, damit z.B. ein Prefetch-Thread beim
+   * Schlie&szlig;en eines {@link ReadItem} die Connection der Transaktion
+   * erkennt.
+   */
+  private final Map<Connection, BoundConnection> boundConnections = Collections.synchronizedMap(new IdentityHashMap<>());
+
+  /**
+   * Die an den Thread gebundene Connection und ob sie zur&uuml;ckgerollt
+   * werden muss.
+   */
+  private static final class BoundConnection {
+
+    private final Connection connection;
+    private volatile boolean rollbackOnly;
+
+    private BoundConnection(Connection connection) {
+      this.connection = connection;
+    }
+  }
+
+  /**
+   * Startet eine Transaktion im aktuellen Thread.
+   *
+   * @throws IllegalStateException
+   *           wenn im Thread bereits eine Transaktion l&auml;uft.
+   */
+  @Override
+  public void begin() {
+    if (Objects.nonNull(boundConnection.get())) {
+      throw new IllegalStateException("Im aktuellen Thread läuft bereits eine Transaktion.");
+    }
+
+    Connection connection = null;
+    try {
+      connection = super.getConnection();
+      connection.setAutoCommit(false);
+      BoundConnection bound = new BoundConnection(connection);
+      boundConnection.set(bound);
+      boundConnections.put(connection, bound);
+      logger.log(Level.FINEST, "Transaktion gestartet");
+    } catch (SQLException sqlEx) {
+      super.close(connection, null);
+      throw new RuntimeException("Transaktion kann nicht gestartet werden.", sqlEx);
+    }
+  }
+
+  /**
+   * Committed die Transaktion des aktuellen Threads und gibt die Connection
+   * an den Pool zur&uuml;ck.
+   *
+   * @throws IllegalStateException
+   *           wenn keine Transaktion l&auml;uft.
+   */
+  @Override
+  public void commit() {
+    BoundConnection bound = getBoundConnection();
+    try {
+      if (bound.rollbackOnly) {
+        bound.connection.rollback();
+        throw new RuntimeException("Die Transaktion wurde zurückgerollt, da eine Datenbankoperation fehlgeschlagen ist.");
+      }
+      bound.connection.commit();
+      logger.log(Level.FINEST, "Transaktion committed");
+    } catch (SQLException sqlEx) {
+      super.rollback(bound.connection);
+      throw new RuntimeException("Commit der Transaktion ist fehlgeschlagen.", sqlEx);
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * Rollt die Transaktion des aktuellen Threads zur&uuml;ck und gibt die
+   * Connection an den Pool zur&uuml;ck.
+   *
+   * @throws IllegalStateException
+   *           wenn keine Transaktion l&auml;uft.
+   */
+  @Override
+  public void rollback() {
+    BoundConnection bound = getBoundConnection();
+    try {
+      super.rollback(bound.connection);
+      logger.log(Level.FINEST, "Transaktion zurückgerollt");
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * Rollt eine nicht beendete Transaktion des aktuellen Threads zur&uuml;ck.
+   * Ohne Transaktion passiert nichts.
+   */
+  @Override
+  public void close() {
+    if (isTransactionActive()) {
+      logger.log(Level.WARNING, "Nicht beendete Transaktion wird zurückgerollt.");
+      rollback();
+    }
+  }
+
+  private BoundConnection getBoundConnection() {
+    BoundConnection bound = boundConnection.get();
+    if (Objects.isNull(bound)) {
+      throw new IllegalStateException("Im aktuellen Thread läuft keine Transaktion.");
+    }
+    return bound;
+  }
+
+  private void release() {
+    BoundConnection bound = boundConnection.get();
+    boundConnection.remove();
+    boundConnections.remove(bound.connection);
+    try {
+      bound.connection.setAutoCommit(true);
+    } catch (SQLException sqlEx) {
+      logger.log(Level.FINE, "Auto-Commit kann nicht zurückgesetzt werden.", sqlEx);
+    }
+    super.close(bound.connection, null);
+  }
+
+  private boolean isBound(Connection connection) {
+    return Objects.nonNull(connection) && boundConnections.containsKey(connection);
+  }
+
+  /**
+   * @return die gebundene Connection, au&szlig;erhalb einer Transaktion eine
+   *         neue Connection aus dem Pool
+   */
+  @Override
+  public Connection getConnection() throws SQLException {
+    BoundConnection bound = boundConnection.get();
+    return Objects.isNull(bound) ? super.getConnection() : bound.connection;
+  }
+
+  /**
+   * Schlie&szlig;t das Statement; die gebundene Connection bleibt bis zum Ende
+   * der Transaktion offen.
+   */
+  @Override
+  public void close(Connection connection, Statement statement) {
+    if (isBound(connection)) {
+      closeStatement(statement);
+    } else {
+      super.close(connection, statement);
+    }
+  }
+
+  /**
+   * Die gebundene Connection wird erst mit {@link #commit()} committed.
+   */
+  @Override
+  public void commit(Connection connection) throws SQLException {
+    if (!isBound(connection)) {
+      super.commit(connection);
+    }
+  }
+
+  /**
+   * Markiert die Transaktion zum Zur&uuml;ckrollen, andere Connections werden
+   * sofort zur&uuml;ckgerollt.
+   */
+  @Override
+  public void rollback(Connection connection) {
+    BoundConnection bound = Objects.isNull(connection) ? null : boundConnections.get(connection);
+    if (Objects.nonNull(bound)) {
+      bound.rollbackOnly = true;
+    } else {
+      super.rollback(connection);
+    }
+  }
+
+  @Override
+  public boolean isTransactionActive() {
+    return Objects.nonNull(boundConnection.get());
+  }
+
+  @Override
+  public boolean istTransactionalConnectionManager() {
+    return true;
+  }
+}
@@ -0,0 +1,383 @@
+/**
+ *
+ */
+package de.hock.jdbc;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.hock.run.ConfigProperty;
+import oracle.ucp.jdbc.PoolDataSource;
+
+/**
+ * Asynchroner Write-Behind Puffer f&uuml;r einzelne Inserts aus vielen Threads.
+ *
+ * Die Zeilen werden in einer begrenzten Queue gesammelt und von einem
+ * Hintergrund-Thread geschrieben, sobald <code>maxBatchSize</code> Zeilen
+ * vorliegen oder <code>flushMillis</code> seit der ersten wartenden Zeile
+ * vergangen sind. Die Zeilen eines Flushes werden pro Query gruppiert, als
+ * Batch auf einer Connection ausgef&uuml;hrt und zusammen committed. Jeder
+ * Batch l&auml;uft hinter einem Savepoint; schl&auml;gt er fehl, wird er
+ * zur&uuml;ckgerollt und in H&auml;lften wiederholt, bis die fehlerhaften
+ * Zeilen gefunden sind. Nur diese bekommen den Fehler. Andere Fehler, z.B.
+ * beim Commit, rollen den ganzen Flush zur&uuml;ck und alle seine Zeilen
+ * bekommen den Fehler.
+ *
+ * Ist die Queue voll, blockiert {@link #insert(String, List)} bis wieder Platz
+ * ist. Einreihen und {@link #close()} schlie&szlig;en sich aus, so dass jede
+ * angenommene Zeile noch geschrieben wird.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+public class WriteBehindWriter implements AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(WriteBehindWriter.class.getSimpleName());
+
+  /** Wartezeit ohne Zeilen, danach wird {@link #close()} gepr&uuml;ft. */
+  private static final long IDLE_POLL_MILLIS = 100;
+
+  private final EntityMetadataRegistry metadataRegistry = EntityMetadataRegistry.getInstance();
+  private final PlaceholderSetter platzhalterSetzer = new PlaceholderSetter();
+  private final ParameterValidator validator = new ParameterValidator();
+
+  private final PoolDataSource oraclePoolConnection;
+  private final BlockingQueue<PendingRow<?>> queue;
+  private final int maxBatchSize;
+  private final long flushNanos;
+  private final Thread flusher;
+  /** Lesesperre beim Einreihen, Schreibsperre beim Schlie&szlig;en. */
+  private final ReadWriteLock admission = new ReentrantReadWriteLock();
+
+  private volatile boolean running = true;
+  private long flushCount;
+  private long rowCount;
+
+  /**
+   * Erzeugt den Writer mit Einstellungen aus <code>properties</code>
+   * ({@link ConfigProperty#WRITE_BEHIND_CAPACITY},
+   * {@link ConfigProperty#WRITE_BEHIND_BATCH_SIZE},
+   * {@link ConfigProperty#WRITE_BEHIND_FLUSH_MILLIS}).
+   */
+  public WriteBehindWriter(PoolDataSource oraclePool, Properties properties) {
+    this(oraclePool, ConfigProperty.WRITE_BEHIND_CAPACITY.intValue(properties), ConfigProperty.WRITE_BEHIND_BATCH_SIZE.intValue(properties),
+        ConfigProperty.WRITE_BEHIND_FLUSH_MILLIS.intValue(properties));
+  }
+
+  /**
+   * @param oraclePool
+   *          ein {@link PoolDataSource}-Objekt
+   * @param capacity
+   *          maximale Anzahl wartender Zeilen
+   * @param maxBatchSize
+   *          maximale Anzahl Zeilen pro Flush
+   * @param flushMillis
+   *          maximale Wartezeit einer Zeile bis zum Flush
+   */
+  public WriteBehindWriter(PoolDataSource oraclePool, int capacity, int maxBatchSize, long flushMillis) {
+    if (capacity < 1 || maxBatchSize < 1 || flushMillis < 0) {
+      throw new IllegalArgumentException(String.format("Ungültige Einstellung capacity=%d, maxBatchSize=%d, flushMillis=%d", capacity, maxBatchSize,
+          flushMillis));
+    }
+    this.oraclePoolConnection = oraclePool;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.maxBatchSize = maxBatchSize;
+    this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+
+    flusher = new Thread(this::runFlusher, "write-behind-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  /**
+   * Reiht eine Zeile f&uuml;r das Query ein.
+   *
+   * @param query
+   *          ein Schreibquery
+   * @param columnValues
+   *          Platzhalterwerte
+   * @return Future mit dem Update-Count der Zeile
+   */
+  public CompletableFuture<Integer> insert(String query, List<Object> columnValues) {
+    validator.verifyArguments(query);
+    validator.verifyArguments(columnValues);
+
+    // Kopie, der Aufrufer darf seine Liste nach dem Einreihen wiederverwenden
+    return enqueue(new PendingRow<>(query, new ArrayList<>(columnValues), platzhalterSetzer::setPlaceholder));
+  }
+
+  /**
+   * Reiht eine Entity ein, das Query kommt aus {@link EntityMetadata}.
+   *
+   * @param typedObject
+   *          eine mit {@link TableName} annotierte Entity
+   * @return Future mit dem Update-Count der Zeile
+   */
+  public <T> CompletableFuture<Integer> insert(T typedObject) {
+    validator.verifyArguments(typedObject);
+    @SuppressWarnings("unchecked")
+    EntityMetadata<T> metadata = (EntityMetadata<T>) metadataRegistry.getMetadata(typedObject.getClass());
+    validator.verifyArguments(metadata.getTableName(), String.format("Die Entityklasse %s hat keine TableName", typedObject.getClass().getName()));
+
+    return enqueue(new PendingRow<>(metadata.getInsertQuery(), typedObject, metadata.getBinder()));
+  }
+
+  private <R> CompletableFuture<Integer> enqueue(PendingRow<R> row) {
+    admission.readLock().lock();
+    try {
+      if (!running) {
+        throw new IllegalStateException("WriteBehindWriter ist geschlossen.");
+      }
+      queue.put(row);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      row.future.completeExceptionally(ex);
+    } finally {
+      admission.readLock().unlock();
+    }
+    return row.future;
+  }
+
+  /**
+   * Nimmt keine neuen Zeilen mehr an, schreibt alle wartenden Zeilen und
+   * wartet auf das Ende des Hintergrund-Threads.
+   */
+  @Override
+  public void close() {
+    // wartet auf laufende Einreihungen, danach wird nichts mehr angenommen
+    admission.writeLock().lock();
+    try {
+      running = false;
+    } finally {
+      admission.writeLock().unlock();
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+
+    // Zeilen, die der Hintergrund-Thread nach einem Interrupt nicht mehr geschrieben hat
+    List<PendingRow<?>> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    if (!remaining.isEmpty()) {
+      flush(remaining);
+    }
+    logger.log(Level.FINE, "{0} beendet", this);
+  }
+
+  private void runFlusher() {
+    List<PendingRow<?>> rows = new ArrayList<>(maxBatchSize);
+    while (running || !queue.isEmpty()) {
+      boolean interrupted = false;
+      try {
+        collect(rows);
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+
+      if (!rows.isEmpty()) {
+        flush(rows);
+        rows.clear();
+      }
+      if (interrupted) {
+        // jedes weitere poll() würde sofort fehlschlagen, den Rest schreibt close()
+        logger.log(Level.WARNING, "{0} wurde unterbrochen, {1} Zeilen warten auf close().", new Object[] { this, queue.size() });
+        running = false;
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Sammelt Zeilen, bis <code>maxBatchSize</code> erreicht oder die Wartezeit
+   * seit der ersten Zeile abgelaufen ist.
+   */
+  private void collect(List<PendingRow<?>> rows) throws InterruptedException {
+    PendingRow<?> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+    if (Objects.isNull(first)) {
+      return;
+    }
+    rows.add(first);
+
+    long deadline = System.nanoTime() + flushNanos;
+    while (rows.size() < maxBatchSize) {
+      queue.drainTo(rows, maxBatchSize - rows.size());
+      long remaining = deadline - System.nanoTime();
+      if (rows.size() >= maxBatchSize || remaining <= 0 || !running) {
+        break;
+      }
+      PendingRow<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (Objects.nonNull(next)) {
+        rows.add(next);
+      }
+    }
+  }
+
+  /**
+   * Schreibt die Zeilen gruppiert nach Query in einer Transaktion. Zeilen, die
+   * sich nicht binden lassen oder im Batch fehlschlagen, bekommen ihren Fehler
+   * sofort, die anderen nach dem Commit ihren Update-Count.
+   */
+  private void flush(List<PendingRow<?>> rows) {
+    Map<String, List<PendingRow<?>>> rowsByQuery = new LinkedHashMap<>();
+    rows.forEach(row -> rowsByQuery.computeIfAbsent(row.query, key -> new ArrayList<>()).add(row));
+
+    Map<PendingRow<?>, Integer> updateCounts = new LinkedHashMap<>();
+    Connection connection = null;
+    try {
+      connection = oraclePoolConnection.getConnection();
+      connection.setAutoCommit(false);
+
+      for (Map.Entry<String, List<PendingRow<?>>> entry : rowsByQuery.entrySet()) {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(entry.getKey())) {
+          executeIsolated(preparedStatement, entry.getValue(), updateCounts);
+        }
+      }
+      connection.commit();
+
+      synchronized (this) {
+        flushCount++;
+        rowCount += updateCounts.size();
+      }
+      logger.log(Level.FINEST, "{0} Zeilen in {1} Queries committed", new Object[] { updateCounts.size(), rowsByQuery.size() });
+      updateCounts.forEach((row, count) -> row.future.complete(count));
+
+    } catch (SQLException | RuntimeException ex) {
+      logger.log(Level.SEVERE, String.format("Write-Behind Flush mit %d Zeilen ist fehlgeschlagen.", rows.size()), ex);
+      rollback(connection);
+      rows.forEach(row -> row.future.completeExceptionally(ex));
+    } finally {
+      close(connection);
+    }
+  }
+
+  /**
+   * F&uuml;hrt die Zeilen als Batch hinter einem Savepoint aus. Bei einer
+   * {@link BatchUpdateException} wird zum Savepoint zur&uuml;ckgerollt und
+   * jede H&auml;lfte f&uuml;r sich wiederholt, bis eine einzelne Zeile
+   * fehlschl&auml;gt. Bereits gelesene Streams lassen sich nicht wiederholen,
+   * ein Batch mit Streams schl&auml;gt deshalb als Ganzes fehl.
+   */
+  private void executeIsolated(PreparedStatement preparedStatement, List<PendingRow<?>> rows, Map<PendingRow<?>, Integer> updateCounts)
+      throws SQLException {
+    List<PendingRow<?>> bound = new ArrayList<>(rows.size());
+    for (PendingRow<?> row : rows) {
+      try {
+        row.bind(preparedStatement);
+        preparedStatement.addBatch();
+        bound.add(row);
+      } catch (SQLException | RuntimeException ex) {
+        preparedStatement.clearParameters();
+        row.future.completeExceptionally(ex);
+      }
+    }
+    if (bound.isEmpty()) {
+      return;
+    }
+
+    Connection connection = preparedStatement.getConnection();
+    Savepoint savepoint = connection.setSavepoint();
+    try {
+      int[] results = preparedStatement.executeBatch();
+      for (int index = 0; index < bound.size(); index++) {
+        int result = index < results.length ? results[index] : Statement.SUCCESS_NO_INFO;
+        updateCounts.put(bound.get(index), result == Statement.SUCCESS_NO_INFO ? 1 : result);
+      }
+    } catch (BatchUpdateException ex) {
+      connection.rollback(savepoint);
+      preparedStatement.clearBatch();
+      if (bound.size() > 1 && bound.stream().anyMatch(row -> LobSupport.holdsStream(row.value))) {
+        // gelesene Streams lassen sich nicht erneut binden
+        logger.log(Level.WARNING, String.format("Batch mit %d Zeilen und Streams von %s ist fehlgeschlagen.", bound.size(), bound.get(0).query), ex);
+        bound.forEach(row -> row.future.completeExceptionally(ex));
+      } else if (bound.size() == 1) {
+        logger.log(Level.WARNING, String.format("Zeile von %s wurde abgewiesen.", bound.get(0).query), ex);
+        bound.get(0).future.completeExceptionally(ex);
+      } else {
+        int middle = bound.size() / 2;
+        executeIsolated(preparedStatement, bound.subList(0, middle), updateCounts);
+        executeIsolated(preparedStatement, bound.subList(middle, bound.size()), updateCounts);
+      }
+    }
+  }
+
+  private void rollback(Connection connection) {
+    try {
+      if (Objects.nonNull(connection)) {
+        connection.rollback();
+      }
+    } catch (SQLException sqlEx) {
+      logger.log(Level.SEVERE, "Fehler beim Rollback.", sqlEx);
+    }
+  }
+
+  private void close(Connection connection) {
+    try {
+      if (Objects.nonNull(connection)) {
+        connection.close();
+      }
+    } catch (SQLException sqlEx) {
+      logger.log(Level.SEVERE, "Fehler beim Connection zu schlißen.", sqlEx);
+    }
+  }
+
+  /**
+   * @return Anzahl wartender Zeilen
+   */
+  public int getPendingCount() {
+    return queue.size();
+  }
+
+  public synchronized long getFlushCount() {
+    return flushCount;
+  }
+
+  public synchronized long getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("WriteBehindWriter [flushes=%d, rows=%d, pending=%d]", flushCount, rowCount, queue.size());
+  }
+
+  /**
+   * Eine wartende Zeile mit Query, Wert, Binder und Future.
+   */
+  private static final class PendingRow<R> {
+
+    private final String query;
+    private final R value;
+    private final ParameterBinder<R> binder;
+    private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+    private PendingRow(String query, R value, ParameterBinder<R> binder) {
+      this.query = query;
+      this.value = value;
+      this.binder = binder;
+    }
+
+    private void bind(PreparedStatement preparedStatement) throws SQLException {
+      binder.bind(preparedStatement, value);
+    }
+  }
+}
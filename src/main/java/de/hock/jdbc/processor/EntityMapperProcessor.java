@@ -0,0 +1,394 @@
+/**
+ *
+ */
+package de.hock.jdbc.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+import de.hock.jdbc.Column;
+import de.hock.jdbc.TableName;
+
+/**
+ * Ein Annotation-Processor, der f&uuml;r jede mit {@link TableName} annotierte
+ * Klasse einen {@link de.hock.jdbc.RowMapper} (<code>Klasse_RowMapper</code>)
+ * und einen {@link de.hock.jdbc.EntityBinder}
+ * (<code>Klasse_ParameterBinder</code>) im selben Package generiert. Beide
+ * lesen und setzen Werte &uuml;ber den Spaltenindex, ohne Reflection.
+ *
+ * Klassen, die nicht vollst&auml;ndig abgebildet werden k&ouml;nnen (z.B. ohne
+ * Default-Konstruktor, private Felder ohne Getter/Setter, unbekannte
+ * Datentypen), werden mit einer Meldung &uuml;bersprungen und zur Laufzeit
+ * weiter per Reflection verarbeitet.
+ *
+ * Der Processor ist nicht als Service registriert und l&auml;uft nicht
+ * automatisch. Er wird beim &Uuml;bersetzen der Entities explizit
+ * eingeschaltet, z.B. mit
+ * <code>-processorpath jdbc-tool.jar -processor de.hock.jdbc.processor.EntityMapperProcessor</code>
+ * bzw. <code>annotationProcessorPaths</code> und
+ * <code>annotationProcessors</code> im maven-compiler-plugin.
+ *
+ * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
+ */
+@SupportedAnnotationTypes("de.hock.jdbc.TableName")
+public class EntityMapperProcessor extends AbstractProcessor {
+
+  /** Muss zu {@link de.hock.jdbc.EntityMetadata} passen. */
+  public static final String ROW_MAPPER_SUFFIX = "_RowMapper";
+  public static final String BINDER_SUFFIX = "_ParameterBinder";
+
+  private static final String SUPPORT = "de.hock.jdbc.MapperSupport";
+  private static final String TRANSIENT_ANNOTATION = "java.beans.Transient";
+
+  private static final Map<String, String[]> TYPE_CODECS = new HashMap<>();
+
+  static {
+    // Java-Typ -> { Lese-Ausdruck, Bind-Ausdruck }; %1$s = ResultSet/Statement,
+    // %2$s = Index, %3$s = Wert
+    TYPE_CODECS.put("java.lang.String", new String[] { "%1$s.getString(%2$s)", SUPPORT + ".setString(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("java.math.BigDecimal", new String[] { "%1$s.getBigDecimal(%2$s)", SUPPORT + ".setBigDecimal(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("boolean", new String[] { "%1$s.getBoolean(%2$s)", "%1$s.setBoolean(%2$s, %3$s)" });
+    TYPE_CODECS.put("java.lang.Boolean", new String[] { "%1$s.getBoolean(%2$s)", SUPPORT + ".setBoolean(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("byte", new String[] { "%1$s.getByte(%2$s)", "%1$s.setByte(%2$s, %3$s)" });
+    TYPE_CODECS.put("java.lang.Byte", new String[] { "%1$s.getByte(%2$s)", SUPPORT + ".setByte(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("short", new String[] { "%1$s.getShort(%2$s)", "%1$s.setShort(%2$s, %3$s)" });
+    TYPE_CODECS.put("java.lang.Short", new String[] { "%1$s.getShort(%2$s)", SUPPORT + ".setShort(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("int", new String[] { "%1$s.getInt(%2$s)", "%1$s.setInt(%2$s, %3$s)" });
+    TYPE_CODECS.put("java.lang.Integer", new String[] { "%1$s.getInt(%2$s)", SUPPORT + ".setInteger(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("long", new String[] { "%1$s.getLong(%2$s)", "%1$s.setLong(%2$s, %3$s)" });
+    TYPE_CODECS.put("java.lang.Long", new String[] { "%1$s.getLong(%2$s)", SUPPORT + ".setLong(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("float", new String[] { "%1$s.getFloat(%2$s)", "%1$s.setFloat(%2$s, %3$s)" });
+    TYPE_CODECS.put("java.lang.Float", new String[] { "%1$s.getFloat(%2$s)", SUPPORT + ".setFloat(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("double", new String[] { "%1$s.getDouble(%2$s)", "%1$s.setDouble(%2$s, %3$s)" });
+    TYPE_CODECS.put("java.lang.Double", new String[] { "%1$s.getDouble(%2$s)", SUPPORT + ".setDouble(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("java.time.LocalDate", new String[] { SUPPORT + ".getLocalDate(%1$s, %2$s)", SUPPORT + ".setLocalDate(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("java.time.LocalTime", new String[] { SUPPORT + ".getLocalTime(%1$s, %2$s)", SUPPORT + ".setLocalTime(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("java.time.LocalDateTime",
+        new String[] { SUPPORT + ".getLocalDateTime(%1$s, %2$s)", SUPPORT + ".setLocalDateTime(%1$s, %2$s, %3$s)" });
+    TYPE_CODECS.put("byte[]", new String[] { "%1$s.getBytes(%2$s)", SUPPORT + ".setBytes(%1$s, %2$s, %3$s)" });
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(TableName.class)) {
+      if (element.getKind() != ElementKind.CLASS) {
+        continue;
+      }
+
+      TypeElement entity = (TypeElement) element;
+      try {
+        EntityModel model = createModel(entity);
+        if (Objects.nonNull(model)) {
+          writeRowMapper(model);
+          writeBinder(model);
+        }
+      } catch (IOException ex) {
+        processingEnv.getMessager().printMessage(Kind.ERROR, "Mapper konnte nicht generiert werden: " + ex.getMessage(), entity);
+      }
+    }
+
+    return false;
+  }
+
+  private EntityModel createModel(TypeElement entity) {
+    if (entity.getModifiers().contains(Modifier.ABSTRACT) || !isVisible(entity)) {
+      return skip(entity, "Klasse ist abstrakt oder nicht sichtbar");
+    }
+
+    List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity));
+    boolean hasDefaultConstructor = ElementFilter.constructorsIn(entity.getEnclosedElements()).stream()
+        .anyMatch(constructor -> constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE));
+    if (!hasDefaultConstructor) {
+      return skip(entity, "kein Default-Konstruktor");
+    }
+
+    EntityModel model = new EntityModel();
+    model.entity = entity;
+    model.tableName = entity.getAnnotation(TableName.class).name();
+    model.packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+    model.flatName = (model.packageName.isEmpty() ? binaryName : binaryName.substring(model.packageName.length() + 1)).replace('$', '_');
+
+    for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+      Set<Modifier> modifiers = field.getModifiers();
+      if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT) || hasAnnotation(field, TRANSIENT_ANNOTATION)) {
+        continue;
+      }
+
+      PropertyModel property = createProperty(field, methods);
+      if (Objects.isNull(property)) {
+        return skip(entity, String.format("Feld %s kann nicht abgebildet werden", field.getSimpleName()));
+      }
+      model.properties.add(property);
+    }
+
+    return model;
+  }
+
+  private PropertyModel createProperty(VariableElement field, List<ExecutableElement> methods) {
+    TypeMirror type = field.asType();
+    String typeName = typeName(type);
+    String[] codec = TYPE_CODECS.get(typeName);
+    if (Objects.isNull(codec)) {
+      codec = enumCodec(type);
+    }
+    if (Objects.isNull(codec)) {
+      return null;
+    }
+
+    String fieldName = field.getSimpleName().toString();
+    boolean fieldAccessible = !field.getModifiers().contains(Modifier.PRIVATE);
+
+    PropertyModel property = new PropertyModel();
+    property.readExpression = codec[0];
+    property.bindExpression = codec[1];
+
+    ExecutableElement setter = findAccessor(methods, "set", fieldName, 1, type);
+    if (Objects.nonNull(setter)) {
+      property.assignment = "entity." + setter.getSimpleName() + "(%s)";
+    } else if (fieldAccessible && !field.getModifiers().contains(Modifier.FINAL)) {
+      property.assignment = "entity." + fieldName + " = %s";
+    } else {
+      return null;
+    }
+
+    ExecutableElement getter = findAccessor(methods, "get", fieldName, 0, type);
+    if (Objects.nonNull(getter)) {
+      property.access = "entity." + getter.getSimpleName() + "()";
+    } else if (fieldAccessible) {
+      property.access = "entity." + fieldName;
+    } else {
+      return null;
+    }
+
+    // gleiche Namensregel wie EntityReflection: Feldname in Uppercase und
+    // Column Alias
+    Column column = field.getAnnotation(Column.class);
+    String upperCaseName = fieldName.toUpperCase();
+    property.columnName = Objects.nonNull(column) && !column.name().isEmpty() ? column.name() : upperCaseName;
+    property.lookupNames = property.columnName.equals(upperCaseName) ? new String[] { upperCaseName }
+        : new String[] { property.columnName, upperCaseName };
+
+    return property;
+  }
+
+  private String[] enumCodec(TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+
+    TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+    if (typeElement.getKind() != ElementKind.ENUM || !isVisible(typeElement)) {
+      return null;
+    }
+
+    String enumName = typeElement.getQualifiedName().toString();
+    return new String[] { SUPPORT + ".getEnum(%1$s, %2$s, " + enumName + ".class)", SUPPORT + ".setEnum(%1$s, %2$s, %3$s)" };
+  }
+
+  private ExecutableElement findAccessor(List<ExecutableElement> methods, String prefix, String fieldName, int parameterCount, TypeMirror type) {
+    for (ExecutableElement method : methods) {
+      String name = method.getSimpleName().toString();
+      if (!name.startsWith(prefix) || !name.substring(prefix.length()).equalsIgnoreCase(fieldName) || method.getParameters().size() != parameterCount
+          || method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+        continue;
+      }
+
+      TypeMirror accessorType = parameterCount == 0 ? method.getReturnType() : method.getParameters().get(0).asType();
+      if (processingEnv.getTypeUtils().isSameType(accessorType, type)) {
+        return method;
+      }
+    }
+
+    return null;
+  }
+
+  private void writeRowMapper(EntityModel model) throws IOException {
+    String className = model.flatName + ROW_MAPPER_SUFFIX;
+    String entityName = model.entity.getQualifiedName().toString();
+
+    try (Writer writer = createSourceFile(model, className); PrintWriter out = new PrintWriter(writer)) {
+      writeHeader(out, model);
+      out.printf("public final class %s implements de.hock.jdbc.RowMapper<%s> {%n%n", className, entityName);
+      out.printf("  private static final String[][] COLUMNS = {%n");
+      for (PropertyModel property : model.properties) {
+        StringJoiner names = new StringJoiner(", ", "{ ", " },");
+        for (String name : property.lookupNames) {
+          names.add(quote(name));
+        }
+        out.printf("      %s%n", names);
+      }
+      out.printf("  };%n%n");
+      out.printf("  private java.util.Map<String, Integer> columns;%n");
+      out.printf("  private String tableName;%n");
+      out.printf("  private int[] indexes;%n%n");
+
+      out.printf("  @Override%n");
+      out.printf("  public %s mapRow(java.sql.ResultSet resultSet) throws java.sql.SQLException {%n", entityName);
+      out.printf("    if (indexes == null) {%n");
+      out.printf("      columns = getColumnNames(resultSet);%n");
+      out.printf("      tableName = getTableName(resultSet);%n");
+      out.printf("      indexes = %s.resolveColumnIndexes(resultSet, COLUMNS, %s);%n", SUPPORT, quote(entityName));
+      out.printf("    }%n%n");
+      out.printf("    %s entity = new %s();%n", entityName, entityName);
+      for (int index = 0; index < model.properties.size(); index++) {
+        PropertyModel property = model.properties.get(index);
+        String indexExpression = "indexes[" + index + "]";
+        out.printf("    if (%s > 0) {%n", indexExpression);
+        out.printf("      %s;%n", String.format(property.assignment, String.format(property.readExpression, "resultSet", indexExpression)));
+        out.printf("    }%n");
+      }
+      out.printf("    return entity;%n");
+      out.printf("  }%n%n");
+
+      out.printf("  @Override%n");
+      out.printf("  public java.util.Map<String, Integer> getColumnNames() {%n");
+      out.printf("    return columns;%n");
+      out.printf("  }%n%n");
+      out.printf("  @Override%n");
+      out.printf("  public String getTableName() {%n");
+      out.printf("    return tableName;%n");
+      out.printf("  }%n");
+      out.printf("}%n");
+    }
+  }
+
+  private void writeBinder(EntityModel model) throws IOException {
+    String className = model.flatName + BINDER_SUFFIX;
+    String entityName = model.entity.getQualifiedName().toString();
+
+    try (Writer writer = createSourceFile(model, className); PrintWriter out = new PrintWriter(writer)) {
+      writeHeader(out, model);
+      out.printf("public final class %s implements de.hock.jdbc.EntityBinder<%s> {%n%n", className, entityName);
+      StringJoiner columns = new StringJoiner(", ");
+      model.properties.forEach(property -> columns.add(quote(property.columnName)));
+      out.printf("  private static final java.util.List<String> COLUMNS = java.util.Collections.unmodifiableList(java.util.Arrays.asList(%s));%n%n",
+          columns);
+
+      out.printf("  @Override%n");
+      out.printf("  public String getTableName() {%n");
+      out.printf("    return %s;%n", quote(model.tableName));
+      out.printf("  }%n%n");
+      out.printf("  @Override%n");
+      out.printf("  public java.util.List<String> getColumnNames() {%n");
+      out.printf("    return COLUMNS;%n");
+      out.printf("  }%n%n");
+
+      out.printf("  @Override%n");
+      out.printf("  public void bind(java.sql.PreparedStatement preparedStatement, %s entity) throws java.sql.SQLException {%n", entityName);
+      for (int index = 0; index < model.properties.size(); index++) {
+        PropertyModel property = model.properties.get(index);
+        out.printf("    %s;%n", String.format(property.bindExpression, "preparedStatement", index + 1, property.access));
+      }
+      out.printf("  }%n");
+      out.printf("}%n");
+    }
+  }
+
+  private Writer createSourceFile(EntityModel model, String className) throws IOException {
+    String qualifiedName = model.packageName.isEmpty() ? className : model.packageName + "." + className;
+    return processingEnv.getFiler().createSourceFile(qualifiedName, model.entity).openWriter();
+  }
+
+  private void writeHeader(PrintWriter out, EntityModel model) {
+    if (!model.packageName.isEmpty()) {
+      out.printf("package %s;%n%n", model.packageName);
+    }
+    out.printf("/**%n * Generiert von %s f&uuml;r {@link %s}.%n */%n", EntityMapperProcessor.class.getName(), model.entity.getQualifiedName());
+  }
+
+  /**
+   * Die generierten Klassen liegen im selben Package wie die Entity. Private
+   * und nicht-statische innere Klassen k&ouml;nnen dort nicht verwendet
+   * werden.
+   */
+  private boolean isVisible(TypeElement type) {
+    Element element = type;
+    while (element.getKind().isClass() || element.getKind().isInterface()) {
+      Element enclosing = element.getEnclosingElement();
+      boolean isInnerClass = (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) && element.getKind() == ElementKind.CLASS
+          && !element.getModifiers().contains(Modifier.STATIC);
+      if (element.getModifiers().contains(Modifier.PRIVATE) || isInnerClass) {
+        return false;
+      }
+      element = enclosing;
+    }
+    return true;
+  }
+
+  private boolean hasAnnotation(Element element, String annotationName) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String typeName(TypeMirror type) {
+    if (type.getKind() == TypeKind.ARRAY) {
+      return typeName(((ArrayType) type).getComponentType()) + "[]";
+    }
+    if (type.getKind() == TypeKind.DECLARED) {
+      return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+    }
+    return type.toString();
+  }
+
+  private String quote(String value) {
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  private EntityModel skip(TypeElement entity, String reason) {
+    processingEnv.getMessager().printMessage(Kind.NOTE, String.format("Kein Mapper generiert fuer %s: %s.", entity.getQualifiedName(), reason), entity);
+    return null;
+  }
+
+  private static class EntityModel {
+    private TypeElement entity;
+    private String tableName;
+    private String packageName;
+    private String flatName;
+    private final List<PropertyModel> properties = new ArrayList<>();
+  }
+
+  private static class PropertyModel {
+    private String columnName;
+    private String[] lookupNames = new String[0];
+    private String readExpression;
+    private String bindExpression;
+    private String assignment;
+    private String access;
+  }
+}
@@ -2,6 +2,8 @@ package de.hock.run;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
 import java.util.stream.Stream;
 
 /**
@@ -28,11 +30,35 @@ public enum ConfigProperty {
   INIT_POOL("InitialPoolSize", "5"),
   MIN_POOL("MinPoolSize", "5"),
   MAX_POOL("MaxPoolSize", "10"),
+  MAX_STATEMENTS("MaxStatements", "10"),
+  SQL_CACHE_SIZE("SqlCacheSize", "256"),
   LOG_LEVEL("LogLevel", "INFO"),
   WRITE_STATEMENT("WriteStatement", ""),
   WRITE_FILTER("WriteFilter",""),
   SELECT_STATEMENT("SelectStatement", ""),
-  SELECT_FILTER("SelectFilter","");
+  SELECT_FILTER("SelectFilter",""),
+  EXPORT_FILE("ExportFile", ""),
+  EXPORT_FORMAT("ExportFormat", "CSV"),
+  EXPORT_PER_THREAD("ExportPerThread", "false"),
+  FETCH_SIZE("FetchSize", "200"),
+  ADAPTIVE_FETCH_SIZE("AdaptiveFetchSize", "false"),
+  FETCH_BYTE_BUDGET("FetchByteBudget", "8388608"),
+  PREFETCH_ROWS("PrefetchRows", "0"),
+  BATCH_SIZE("BatchSize", "1000"),
+  ADAPTIVE_BATCH_SIZE("AdaptiveBatchSize", "false"),
+  MIN_BATCH_SIZE("MinBatchSize", "100"),
+  MAX_BATCH_SIZE("MaxBatchSize", "10000"),
+  WRITE_PACKAGE_SIZE("WritePackageSize", "5000"),
+  INSERT_PARALLELISM("InsertParallelism", "1"),
+  WRITE_BEHIND_CAPACITY("WriteBehindCapacity", "10000"),
+  WRITE_BEHIND_BATCH_SIZE("WriteBehindBatchSize", "500"),
+  WRITE_BEHIND_FLUSH_MILLIS("WriteBehindFlushMillis", "100"),
+  COMMIT_INTERVAL("CommitInterval", "0"),
+  CHECKPOINT_PATH("CheckpointPath", ""),
+  ISOLATE_BATCH_FAILURES("IsolateBatchFailures", "false"),
+  REJECT_FILE("RejectFile", ""),
+  RESULT_CACHE_SIZE("ResultCacheSize", "0"),
+  RESULT_CACHE_TTL_MILLIS("ResultCacheTtlMillis", "60000");
 //@formatter:on
 
   private static final Map<String, ConfigProperty> propertyHolder = new HashMap<>();
@@ -60,7 +86,16 @@ public enum ConfigProperty {
     return defaultpropValue;
   }
 
+  /**
+   * Liest den Wert aus <code>properties</code> als int. Ein fehlender oder
+   * leerer Wert liefert den Default-Wert.
+   */
+  public int intValue(Properties properties) {
+    String value = properties.getProperty(propertyKey);
+    return Integer.parseInt(Objects.isNull(value) || value.trim().isEmpty() ? defaultpropValue : value.trim());
+  }
+
   public static ConfigProperty getConfig(String propKey) {
     return propertyHolder.get(propKey);
   }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -23,6 +23,7 @@ import de.hock.database.write.DatabaseWriter;
 import de.hock.database.write.OracleDatabaseWriter;
 import de.hock.dataset.importer.DatasetImporter;
 import de.hock.dataset.importer.FileImporter;
+import de.hock.jdbc.OracleDatabaseOperation;
 
 /**
  * @author <a href="mailto:Mojammal.Hoque.B@gmail.de">Mojammal Hock</a>
@@ -50,6 +51,8 @@ public class MainClass {
 
     setGlobalLogLevel();
 
+    OracleDatabaseOperation.configureSqlCache(properties);
+
     DatabaseReader readDatabase = new OracleDatabaseReader(properties);
     if (readDatabase.numberOfTaskExecution() > 0) {
       TaskExecutor taskExecutor = new TaskExecutor(readDatabase.numberOfWorkerThread());